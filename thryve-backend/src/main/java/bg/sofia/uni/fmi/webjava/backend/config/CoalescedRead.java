@@ -0,0 +1,14 @@
+package bg.sofia.uni.fmi.webjava.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Concurrent calls with equal arguments share one invocation, and its result is reused for
+// thryve.coalescing.ttl-ms. Only for reads whose result is immutable and may be slightly stale.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CoalescedRead {
+
+}
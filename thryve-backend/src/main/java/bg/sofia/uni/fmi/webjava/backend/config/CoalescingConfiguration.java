@@ -0,0 +1,34 @@
+package bg.sofia.uni.fmi.webjava.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+public class CoalescingConfiguration {
+
+    // runs after method security but outside @Transactional, so only the first caller opens a transaction.
+    // Advisors are created with the proxy creator, so the meter registry is only looked up on first use.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor coalescedReadAdvisor(@Value("${thryve.coalescing.max-size}") long maxSize,
+                                        @Value("${thryve.coalescing.ttl-ms}") long ttlMs,
+                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+            AnnotationMatchingPointcut.forMethodAnnotation(CoalescedRead.class),
+            new CoalescingMethodInterceptor(maxSize, Duration.ofMillis(ttlMs), meterRegistry::getObject));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+
+}
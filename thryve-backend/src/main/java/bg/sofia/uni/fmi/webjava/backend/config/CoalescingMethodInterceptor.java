@@ -0,0 +1,78 @@
+package bg.sofia.uni.fmi.webjava.backend.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// The first caller of a key registers a future and runs the method on its own thread, so it keeps its
+// security context and transaction; callers arriving meanwhile wait on that future. The completed future is
+// kept for the TTL, failed calls are removed right away so errors are never reused.
+public class CoalescingMethodInterceptor implements MethodInterceptor {
+
+    private final long maxSize;
+    private final Duration ttl;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Map<Method, AsyncCache<List<Object>, Outcome>> caches = new ConcurrentHashMap<>();
+
+    public CoalescingMethodInterceptor(long maxSize, Duration ttl, Supplier<MeterRegistry> meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // a caller inside a transaction may need to see its own uncommitted writes
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+
+        AsyncCache<List<Object>, Outcome> cache = caches.computeIfAbsent(invocation.getMethod(), this::createCache);
+        List<Object> key = Arrays.asList(invocation.getArguments().clone());
+        CompletableFuture<Outcome> created = new CompletableFuture<>();
+        CompletableFuture<Outcome> shared = cache.get(key, (k, executor) -> created);
+        if (shared == created) {
+            try {
+                created.complete(new Outcome(invocation.proceed(), null));
+            } catch (Throwable e) {
+                cache.asMap().remove(key, created);
+                created.complete(new Outcome(null, e));
+            }
+        }
+
+        Outcome outcome = shared.join();
+        if (outcome.error() != null) {
+            throw outcome.error();
+        }
+        return outcome.value();
+    }
+
+    private AsyncCache<List<Object>, Outcome> createCache(Method method) {
+        AsyncCache<List<Object>, Outcome> cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry.get(), cache.synchronous(),
+            "coalesced." + method.getDeclaringClass().getSimpleName() + "." + method.getName());
+        return cache;
+    }
+
+    // failures are handed to the waiting callers as values, the entry itself is removed before they see it
+    private record Outcome(Object value, Throwable error) {
+    }
+
+}
@@ -0,0 +1,77 @@
+package bg.sofia.uni.fmi.webjava.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+// Backs the Hibernate second-level and query caches with Caffeine. Every region is created up front from
+// thryve.l2-cache.regions.<region>.* so Hibernate never falls back to an unbounded default cache.
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    public static final String COURSES_REGION = "courses";
+    public static final String SECTIONS_REGION = "sections";
+    public static final String SECTION_RESOURCES_REGION = "section-resources";
+    public static final String RESOURCES_REGION = "resources";
+    public static final String ASSIGNMENTS_REGION = "assignments";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    // query results are only valid while this region remembers the last write to their tables, so it never expires
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private static final List<String> REGIONS = List.of(COURSES_REGION, SECTIONS_REGION, SECTION_RESOURCES_REGION,
+        RESOURCES_REGION, ASSIGNMENTS_REGION, QUERY_RESULTS_REGION);
+    private static final String MAX_SIZE_PROPERTY = "thryve.l2-cache.regions.%s.max-size";
+    private static final String TTL_PROPERTY = "thryve.l2-cache.regions.%s.ttl-ms";
+    private static final String HIT_RATIO_METRIC = "cache.hit.ratio";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(Environment environment, MeterRegistry meterRegistry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager();
+        for (String region : REGIONS) {
+            long maxSize = environment.getRequiredProperty(format(MAX_SIZE_PROPERTY, region), Long.class);
+            long ttlMs = environment.getRequiredProperty(format(TTL_PROPERTY, region), Long.class);
+            createRegion(cacheManager, meterRegistry, region, OptionalLong.of(maxSize),
+                OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+        }
+        createRegion(cacheManager, meterRegistry, UPDATE_TIMESTAMPS_REGION, OptionalLong.empty(), OptionalLong.empty());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheManagerCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, MeterRegistry meterRegistry, String region,
+                                     OptionalLong maxSize, OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxSize);
+        configuration.setExpireAfterWrite(expireAfterWriteNanos);
+        configuration.setNativeStatisticsEnabled(true);
+
+        Cache<?, ?> cache = cacheManager.createCache(region, configuration).unwrap(Cache.class);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, region);
+        Gauge.builder(HIT_RATIO_METRIC, cache, c -> c.stats().hitRate())
+            .tag("cache", region)
+            .register(meterRegistry);
+    }
+
+}
@@ -1,9 +1,11 @@
 package bg.sofia.uni.fmi.webjava.backend.controller;
 
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseCreateDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseOutlineDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.EntityModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.service.CourseOutlineService;
 import bg.sofia.uni.fmi.webjava.backend.service.CourseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -36,6 +39,7 @@ public class CourseController {
     public static final String COURSE_DELETED_MESSAGE = "Course deleted successfully!";
 
     private final CourseService courseService;
+    private final CourseOutlineService courseOutlineService;
 
     @PreAuthorize("hasAnyRole('STANDARD', 'CREATOR', 'ADMIN')")
     @GetMapping(value = {"", "/"})
@@ -56,6 +60,19 @@ public class CourseController {
         return ResponseEntity.ok(courseService.getCourseById(id));
     }
 
+    // the ETag is read before the outline, so a concurrent edit can only make the body newer than its tag
+    @PreAuthorize("hasAnyRole('STANDARD', 'CREATOR', 'ADMIN')")
+    @GetMapping("/{id}/outline")
+    public ResponseEntity<CourseOutlineDto> getCourseOutline(@PathVariable UUID id, WebRequest request) {
+        String eTag = courseOutlineService.getCourseOutlineETag(id);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(eTag)
+            .body(courseOutlineService.getCourseOutline(id));
+    }
+
     @PreAuthorize("hasAnyRole('CREATOR', 'ADMIN')")
     @PostMapping(value = {"", "/"})
     public ResponseEntity<CourseResponseDto> createCourse(
@@ -1,10 +1,12 @@
 package bg.sofia.uni.fmi.webjava.backend.controller;
 
 import bg.sofia.uni.fmi.webjava.backend.model.dto.EntityModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.ImportResultDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.service.EnrollmentService;
+import bg.sofia.uni.fmi.webjava.backend.service.ImportRecordIterator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -23,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 @RestController
@@ -33,6 +36,7 @@ public class EnrollmentController {
     public static final String ENROLLMENT_CREATED_MESSAGE = "Enrollment created successfully!";
     public static final String ENROLLMENT_UPDATED_MESSAGE = "Enrollment updated successfully!";
     public static final String ENROLLMENT_DELETED_MESSAGE = "Enrollment deleted successfully!";
+    public static final String ENROLLMENTS_IMPORTED_MESSAGE = "Enrollments imported successfully!";
 
     private final EnrollmentService enrollmentService;
 
@@ -75,6 +79,14 @@ public class EnrollmentController {
         );
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = ImportRecordIterator.TEXT_CSV_VALUE)
+    public ResponseEntity<EntityModificationResponse<ImportResultDto>> importEnrollments(InputStream csv) {
+        return ResponseEntity.ok(
+            new EntityModificationResponse<>(ENROLLMENTS_IMPORTED_MESSAGE, enrollmentService.importEnrollments(csv))
+        );
+    }
+
     @PreAuthorize("hasAnyRole('CREATOR', 'ADMIN')")
     @PatchMapping("/{id}")
     public ResponseEntity<EntityModificationResponse<EnrollmentResponseDto>> updateEnrollmentById(@PathVariable UUID id, @RequestBody @Valid EnrollmentUpdateDto enrollmentUpdateDto) {
@@ -0,0 +1,29 @@
+package bg.sofia.uni.fmi.webjava.backend.controller;
+
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtKeyring;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Public keys for verifying tokens without calling back to the backend
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private static final Duration JWKS_MAX_AGE = Duration.ofMinutes(5);
+
+    private final JwtKeyring jwtKeyring;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(JWKS_MAX_AGE).cachePublic())
+            .body(jwtKeyring.getJwks());
+    }
+
+}
@@ -1,18 +1,27 @@
 package bg.sofia.uni.fmi.webjava.backend.controller;
 
+import bg.sofia.uni.fmi.webjava.backend.model.dto.BulkModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.CursorPage;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.EntityModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationIdsDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.service.NotificationService;
+import bg.sofia.uni.fmi.webjava.backend.service.NotificationStreamService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
@@ -24,8 +33,11 @@ public class NotificationController {
 
     private static final String NOTIFICATION_UPDATED_MESSAGE = "Notification marked as read.";
     private static final String NOTIFICATION_DELETED_MESSAGE = "Notification deleted successfully.";
+    private static final String NOTIFICATIONS_UPDATED_MESSAGE = "Notifications marked as read.";
+    private static final String NOTIFICATIONS_DELETED_MESSAGE = "Read notifications deleted successfully.";
 
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
 
     @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
     @GetMapping("/me")
@@ -33,7 +45,7 @@ public class NotificationController {
         Authentication auth,
         @RequestParam(defaultValue = "0") int pageNumber,
         @RequestParam(defaultValue = "10") int pageSize,
-        @RequestParam(defaultValue = "postedAt") String sortBy,
+        @RequestParam(defaultValue = "createdAt") String sortBy,
         @RequestParam(defaultValue = "DESC") String direction
     ) {
         Sort.Direction dir = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.DESC);
@@ -41,6 +53,21 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getNotificationsByRecipientEmail(auth.getName(), pageable));
     }
 
+    @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
+    @GetMapping("/me/feed")
+    public ResponseEntity<CursorPage<NotificationResponseDto>> getMyNotificationFeed(
+        Authentication auth,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limit,
+        @RequestParam(defaultValue = "createdAt") String sortBy,
+        @RequestParam(defaultValue = "DESC") String direction
+    ) {
+        Sort.Direction dir = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.DESC);
+        return ResponseEntity.ok(notificationService.getNotificationFeedByRecipientEmail(
+            auth.getName(), cursor, limit, sortBy, dir
+        ));
+    }
+
     @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
     @GetMapping("/me/unread-count")
     public ResponseEntity<Long> getMyUnreadCount(Authentication auth) {
@@ -49,6 +76,12 @@ public class NotificationController {
         );
     }
 
+    @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMyNotifications(Authentication auth) {
+        return notificationStreamService.subscribe(auth.getName());
+    }
+
     @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
     @PostMapping("/{id}/read")
     public ResponseEntity<EntityModificationResponse<NotificationResponseDto>> markAsRead(
@@ -60,6 +93,46 @@ public class NotificationController {
         ));
     }
 
+    @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
+    @PostMapping("/me/read-all")
+    public ResponseEntity<BulkModificationResponse> markAllAsRead(Authentication auth) {
+        return ResponseEntity.ok(new BulkModificationResponse(
+            NOTIFICATIONS_UPDATED_MESSAGE,
+            notificationService.markAllNotificationsAsReadByRecipientEmail(auth.getName())
+        ));
+    }
+
+    @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
+    @PostMapping("/me/read")
+    public ResponseEntity<BulkModificationResponse> markAsReadByIds(
+        @RequestBody @Valid NotificationIdsDto notificationIdsDto, Authentication auth
+    ) {
+        return ResponseEntity.ok(new BulkModificationResponse(
+            NOTIFICATIONS_UPDATED_MESSAGE,
+            notificationService.markNotificationsAsReadByRecipientEmail(notificationIdsDto.getIds(), auth.getName())
+        ));
+    }
+
+    @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
+    @PostMapping("/me/read-before")
+    public ResponseEntity<BulkModificationResponse> markAsReadBefore(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before, Authentication auth
+    ) {
+        return ResponseEntity.ok(new BulkModificationResponse(
+            NOTIFICATIONS_UPDATED_MESSAGE,
+            notificationService.markNotificationsAsReadBeforeByRecipientEmail(before, auth.getName())
+        ));
+    }
+
+    @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
+    @DeleteMapping("/me/read")
+    public ResponseEntity<BulkModificationResponse> deleteReadNotifications(Authentication auth) {
+        return ResponseEntity.ok(new BulkModificationResponse(
+            NOTIFICATIONS_DELETED_MESSAGE,
+            notificationService.deleteReadNotificationsByRecipientEmail(auth.getName())
+        ));
+    }
+
     @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
     @DeleteMapping("/{id}")
     public ResponseEntity<EntityModificationResponse<NotificationResponseDto>> deleteNotificationById(
@@ -3,7 +3,10 @@ package bg.sofia.uni.fmi.webjava.backend.controller;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.EntityModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.MessageResponse;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.service.ImportRecordIterator;
+import bg.sofia.uni.fmi.webjava.backend.service.UserImportService;
 import bg.sofia.uni.fmi.webjava.backend.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +14,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,10 +25,13 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.InputStream;
 import java.util.UUID;
 
 @RestController
@@ -34,8 +42,10 @@ public class UserController {
     public static final String CREATED_USER_MESSAGE = "User created successfully!";
     public static final String UPDATED_USER_MESSAGE = "User updated successfully!";
     public static final String DELETED_USER_MESSAGE = "User deleted successfully!";
+    public static final String REVOKED_USER_SESSIONS_MESSAGE = "User sessions revoked successfully!";
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping(value = {"", "/"})
@@ -63,6 +73,18 @@ public class UserController {
             .body(new EntityModificationResponse<>(CREATED_USER_MESSAGE, userService.createUser(userCreateDto)));
     }
 
+    // answers with one result line per record, streamed while the upload is still being read
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(
+        value = "/import",
+        consumes = {ImportRecordIterator.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseBodyEmitter importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                           InputStream body) {
+        return userImportService.importUsers(body, MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType));
+    }
+
     @PreAuthorize("hasAnyRole('STANDARD', 'CREATOR', 'ADMIN')")
     @PatchMapping("/{id}")
     public ResponseEntity<EntityModificationResponse<UserResponseDto>> updateUserById(
@@ -82,6 +104,13 @@ public class UserController {
         );
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{id}/revoke-sessions")
+    public ResponseEntity<MessageResponse> revokeSessionsByUserId(@PathVariable UUID id) {
+        userService.revokeSessionsByUserId(id);
+        return ResponseEntity.ok(new MessageResponse(REVOKED_USER_SESSIONS_MESSAGE));
+    }
+
     @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
     @GetMapping("/me")
     public ResponseEntity<UserResponseDto> me(org.springframework.security.core.Authentication authentication) {
@@ -0,0 +1,95 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Tells the other nodes about every write to a cached entity. The owning entry is evicted precisely; collections
+// and query results cannot be traced back to a single row, so those regions are cleared whole. That is fine for
+// content that rarely changes. Without an EntityCacheInvalidationTransport bean this does nothing.
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidationRelay
+    implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String FIELD_SEPARATOR = ",";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<EntityCacheInvalidationTransport> transportProvider;
+
+    private EntityCacheInvalidationTransport transport;
+
+    @PostConstruct
+    public void init() {
+        transport = transportProvider.getIfAvailable();
+        if (transport == null) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        transport.subscribe(this::onMessage);
+    }
+
+    // these run during the flush, so the entries are sent with the transaction that wrote the rows
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    void onMessage(Collection<String> entries) {
+        CacheImplementor cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        for (String entry : entries) {
+            String[] fields = entry.split(FIELD_SEPARATOR, 2);
+            cache.evictEntityData(fields[0], UUID.fromString(fields[1]));
+        }
+        cache.evictCollectionData();
+        cache.evictQueryRegions();
+    }
+
+    static String encode(String entityName, Object id) {
+        return entityName + FIELD_SEPARATOR + id;
+    }
+
+    private void publish(EntityPersister persister, Object id) {
+        if (persister.canWriteToCache()) {
+            transport.publish(List.of(encode(persister.getEntityName(), id)));
+        }
+    }
+
+}
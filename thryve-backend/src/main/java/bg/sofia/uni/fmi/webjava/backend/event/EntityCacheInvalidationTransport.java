@@ -0,0 +1,14 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+// Carries second-level cache invalidations to the other nodes. Entries are "entityName,id" and must reach the
+// other nodes only if the transaction that changed the entities commits.
+public interface EntityCacheInvalidationTransport {
+
+    void publish(Collection<String> entries);
+
+    void subscribe(Consumer<Collection<String>> handler);
+
+}
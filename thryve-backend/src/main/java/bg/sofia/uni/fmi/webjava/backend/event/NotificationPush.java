@@ -0,0 +1,34 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import java.util.UUID;
+
+// recipientId == null targets every user (broadcast), notificationId == null means only the unread count changed.
+// A course fan-out names the course and its first notification instead of one push per enrolled user, and each
+// node resolves the rows of its own connected users.
+public record NotificationPush(UUID recipientId, UUID notificationId, UUID courseId) {
+
+    public NotificationPush(UUID recipientId, UUID notificationId) {
+        this(recipientId, notificationId, null);
+    }
+
+    public static NotificationPush broadcast(UUID notificationId) {
+        return new NotificationPush(null, notificationId);
+    }
+
+    public static NotificationPush courseFanOut(UUID courseId, UUID firstNotificationId) {
+        return new NotificationPush(null, firstNotificationId, courseId);
+    }
+
+    public static NotificationPush unreadCountChanged(UUID recipientId) {
+        return new NotificationPush(recipientId, null);
+    }
+
+    public boolean isBroadcast() {
+        return recipientId == null && courseId == null;
+    }
+
+    public boolean isCourseFanOut() {
+        return courseId != null;
+    }
+
+}
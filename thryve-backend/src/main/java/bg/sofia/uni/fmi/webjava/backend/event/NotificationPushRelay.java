@@ -0,0 +1,92 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import bg.sofia.uni.fmi.webjava.backend.service.NotificationCounterService;
+import bg.sofia.uni.fmi.webjava.backend.service.NotificationStreamService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+// With the bridge enabled every push goes through Postgres, including the ones for this node's own clients,
+// so all nodes deliver the same way. Entries are "recipient,notification,course" with ids as 22 char base64 strings.
+@Component
+@RequiredArgsConstructor
+public class NotificationPushRelay {
+
+    static final String CHANNEL = "thryve_notifications";
+    private static final String FIELD_SEPARATOR = ",";
+
+    private final PostgresChannelBridge bridge;
+    private final NotificationStreamService notificationStreamService;
+    private final NotificationCounterService notificationCounterService;
+
+    @PostConstruct
+    public void init() {
+        if (bridge.isEnabled()) {
+            bridge.subscribe(CHANNEL, this::onMessage);
+        }
+    }
+
+    // published before commit, so the NOTIFY is part of the transaction that wrote the notifications
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onNotificationsChanged(NotificationsChangedEvent event) {
+        if (!bridge.isEnabled()) {
+            return;
+        }
+        bridge.publish(CHANNEL, event.pushes().stream().map(NotificationPushRelay::encode).toList());
+    }
+
+    void onMessage(String payload) {
+        List<NotificationPush> pushes = decode(payload);
+        for (NotificationPush push : pushes) {
+            if (push.isBroadcast()) {
+                notificationCounterService.applyBroadcastCreated(push.notificationId());
+            } else if (push.isCourseFanOut()) {
+                notificationCounterService.applyCourseFanOut(push.courseId(), push.notificationId());
+            } else {
+                notificationCounterService.evictCached(push.recipientId());
+            }
+        }
+        notificationStreamService.push(pushes);
+    }
+
+    static String encode(NotificationPush push) {
+        return encodeId(push.recipientId()) + FIELD_SEPARATOR + encodeId(push.notificationId())
+            + FIELD_SEPARATOR + encodeId(push.courseId());
+    }
+
+    static List<NotificationPush> decode(String payload) {
+        return Arrays.stream(payload.split(PostgresChannelBridge.ENTRY_SEPARATOR))
+            .map(entry -> entry.split(FIELD_SEPARATOR, -1))
+            // entries from nodes that predate course fan-outs have no course field
+            .map(fields -> new NotificationPush(decodeId(fields[0]), decodeId(fields[1]),
+                fields.length > 2 ? decodeId(fields[2]) : null))
+            .toList();
+    }
+
+    private static String encodeId(UUID id) {
+        if (id == null) {
+            return "";
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private static UUID decodeId(String encoded) {
+        if (encoded.isEmpty()) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(encoded));
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+}
@@ -0,0 +1,7 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import java.util.List;
+
+public record NotificationsChangedEvent(List<NotificationPush> pushes) {
+
+}
@@ -0,0 +1,173 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+// Relays small messages between backend nodes through Postgres LISTEN/NOTIFY, so no extra broker is needed.
+// NOTIFY is transactional: a message published inside a transaction is only delivered if it commits.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostgresChannelBridge {
+
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    public static final String ENTRY_SEPARATOR = ";";
+
+    private static final String PUBLISH_SQL = "select pg_notify(?, ?)";
+    private static final Pattern CHANNEL_NAME_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String INVALID_CHANNEL_MESSAGE = "Invalid channel name %s!";
+    private static final String ENTRY_TOO_LARGE_MESSAGE = "Entry of %d bytes does not fit in a notification payload!";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${thryve.cluster.bridge.enabled}")
+    private boolean enabled;
+
+    @Value("${thryve.cluster.bridge.poll-timeout-ms}")
+    private int pollTimeoutMs;
+
+    @Value("${thryve.cluster.bridge.reconnect-backoff-ms}")
+    private long reconnectBackoffMs;
+
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void subscribe(String channel, Consumer<String> handler) {
+        validateChannel(channel);
+        handlers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    // entries are packed into as few payloads as possible, each one staying under the NOTIFY size limit
+    public void publish(String channel, Collection<String> entries) {
+        validateChannel(channel);
+        StringBuilder payload = new StringBuilder();
+        int payloadBytes = 0;
+        for (String entry : entries) {
+            int entryBytes = entry.getBytes(StandardCharsets.UTF_8).length;
+            if (entryBytes > MAX_PAYLOAD_BYTES) {
+                throw new IllegalArgumentException(format(ENTRY_TOO_LARGE_MESSAGE, entryBytes));
+            }
+            if (!payload.isEmpty() && payloadBytes + ENTRY_SEPARATOR.length() + entryBytes > MAX_PAYLOAD_BYTES) {
+                send(channel, payload.toString());
+                payload.setLength(0);
+                payloadBytes = 0;
+            }
+            if (!payload.isEmpty()) {
+                payload.append(ENTRY_SEPARATOR);
+                payloadBytes += ENTRY_SEPARATOR.length();
+            }
+            payload.append(entry);
+            payloadBytes += entryBytes;
+        }
+        if (!payload.isEmpty()) {
+            send(channel, payload.toString());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || handlers.isEmpty()) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform().daemon().name("postgres-channel-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    void dispatch(String channel, String payload) {
+        for (Consumer<String> handler : handlers.getOrDefault(channel, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (RuntimeException e) {
+                log.error("Failed to handle message on channel {}: {}", channel, e.getMessage());
+            }
+        }
+    }
+
+    private void send(String channel, String payload) {
+        jdbcTemplate.query(PUBLISH_SQL, rs -> { }, channel, payload);
+    }
+
+    // a dedicated connection outside the pool, since it is held for the lifetime of the node
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                Set<String> listening = new HashSet<>();
+                while (running) {
+                    for (String channel : handlers.keySet()) {
+                        if (listening.add(channel)) {
+                            try (Statement statement = connection.createStatement()) {
+                                statement.execute("listen " + channel);
+                            }
+                        }
+                    }
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getName(), notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost the channel listener connection, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(reconnectBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void validateChannel(String channel) {
+        if (!CHANNEL_NAME_PATTERN.matcher(channel).matches()) {
+            throw new IllegalArgumentException(format(INVALID_CHANNEL_MESSAGE, channel));
+        }
+    }
+
+}
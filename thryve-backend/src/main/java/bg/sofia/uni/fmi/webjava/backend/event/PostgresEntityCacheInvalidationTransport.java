@@ -0,0 +1,36 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+// Needs thryve.cluster.bridge.enabled as well, otherwise nothing is sent or received
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "thryve.l2-cache.invalidation", havingValue = "postgres")
+public class PostgresEntityCacheInvalidationTransport implements EntityCacheInvalidationTransport {
+
+    static final String CHANNEL = "thryve_entity_cache";
+
+    private final PostgresChannelBridge bridge;
+
+    @Override
+    public void publish(Collection<String> entries) {
+        if (bridge.isEnabled()) {
+            bridge.publish(CHANNEL, entries);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Collection<String>> handler) {
+        if (bridge.isEnabled()) {
+            bridge.subscribe(CHANNEL,
+                payload -> handler.accept(Arrays.asList(payload.split(PostgresChannelBridge.ENTRY_SEPARATOR))));
+        }
+    }
+
+}
@@ -4,6 +4,7 @@ import bg.sofia.uni.fmi.webjava.backend.model.dto.MessageResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -25,6 +26,7 @@ public class GlobalExceptionHandler {
     private static final String INVALID_INPUT_MESSAGE = "Invalid input!";
     private static final String UNEXPECTED_EXCEPTION_MESSAGE = "An unexpected error occurred!";
     private static final String AUTHENTICATION_EXCEPTION_MESSAGE = "Authentication failed! Invalid email or password!";
+    private static final String HASHING_RETRY_AFTER_SECONDS = "1";
 
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<MessageResponse> handleEntityNotFoundException(EntityNotFoundException ex) {
@@ -84,10 +86,12 @@ public class GlobalExceptionHandler {
             .body(new MessageResponse(ex.getMessage()));
     }
 
-    @ExceptionHandler(EnrollmentRequestAlreadyFinalizedException.class)
-    public ResponseEntity<MessageResponse> handleExceptionsWithBadRequest(
-        EnrollmentRequestAlreadyFinalizedException ex
-    ) {
+    @ExceptionHandler({
+        EnrollmentRequestAlreadyFinalizedException.class,
+        InvalidPageRequestException.class,
+        InvalidImportException.class
+    })
+    public ResponseEntity<MessageResponse> handleExceptionsWithBadRequest(RuntimeException ex) {
         return ResponseEntity
             .status(HttpStatus.BAD_REQUEST)
             .body(new MessageResponse(ex.getMessage()));
@@ -107,6 +111,31 @@ public class GlobalExceptionHandler {
             .body(new MessageResponse(AUTHENTICATION_EXCEPTION_MESSAGE));
     }
 
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<MessageResponse> handleInvalidRefreshTokenException(InvalidRefreshTokenException ex) {
+        return ResponseEntity
+            .status(HttpStatus.UNAUTHORIZED)
+            .body(new MessageResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<MessageResponse> handleTooManyLoginAttemptsException(TooManyLoginAttemptsException ex) {
+        return ResponseEntity
+            .status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(new MessageResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<MessageResponse> handlePasswordHashingUnavailableException(
+        PasswordHashingUnavailableException ex
+    ) {
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, HASHING_RETRY_AFTER_SECONDS)
+            .body(new MessageResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<MessageResponse> handleUnexpectedException(Exception ex) {
         log.error(ex.getClass().getName());
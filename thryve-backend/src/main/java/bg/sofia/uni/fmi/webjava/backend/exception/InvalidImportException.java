@@ -0,0 +1,9 @@
+package bg.sofia.uni.fmi.webjava.backend.exception;
+
+public class InvalidImportException extends RuntimeException {
+
+    public InvalidImportException(String message) {
+        super(message);
+    }
+
+}
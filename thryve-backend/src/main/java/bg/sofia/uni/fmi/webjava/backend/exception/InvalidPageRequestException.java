@@ -0,0 +1,9 @@
+package bg.sofia.uni.fmi.webjava.backend.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+
+}
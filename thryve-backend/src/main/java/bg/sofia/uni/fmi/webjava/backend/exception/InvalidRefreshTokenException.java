@@ -0,0 +1,9 @@
+package bg.sofia.uni.fmi.webjava.backend.exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package bg.sofia.uni.fmi.webjava.backend.exception;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,105 @@
+package bg.sofia.uni.fmi.webjava.backend.init;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+// Runs once the migrations are applied and before the web server starts, so a database that was restored
+// or hand-edited without the indexes the queries rely on stops the node instead of slowly scanning tables.
+@Component
+@RequiredArgsConstructor
+@DependsOnDatabaseInitialization
+public class SchemaIndexVerifier {
+
+    static final Map<String, List<String>> EXPECTED_INDEXES = new TreeMap<>(Map.ofEntries(
+        Map.entry("notifications", List.of(
+            "idx_notifications_recipient_created_id",
+            "idx_notifications_recipient_unread",
+            "idx_notifications_broadcast_created",
+            "idx_notifications_sender_created",
+            "idx_notifications_course",
+            "idx_notifications_created")),
+        Map.entry("notification_receipts", List.of("idx_notification_receipts_user_notification")),
+        Map.entry("enrollments", List.of("idx_enrollments_course_user", "idx_enrollments_user")),
+        Map.entry("enrollment_requests", List.of(
+            "idx_enrollment_requests_course_user",
+            "idx_enrollment_requests_user")),
+        Map.entry("sections", List.of("idx_sections_course_order")),
+        Map.entry("resources", List.of("idx_resources_section")),
+        Map.entry("assignments", List.of("idx_assignments_course")),
+        Map.entry("assignment_submissions", List.of(
+            "idx_assignment_submissions_assignment",
+            "idx_assignment_submissions_user")),
+        Map.entry("notification_outbox", List.of(
+            "idx_notification_outbox_available",
+            "idx_notification_outbox_course_type")),
+        Map.entry("token_revocations", List.of("idx_token_revocations_revoked_at")),
+        Map.entry("refresh_token_families", List.of(
+            "idx_refresh_token_families_subject",
+            "idx_refresh_token_families_revoked_updated",
+            "idx_refresh_token_families_expires"))
+    ));
+
+    private static final String MISSING_INDEXES_MESSAGE = "Missing database indexes: %s!";
+
+    private final DataSource dataSource;
+
+    @Value("${thryve.schema.verify-indexes}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void verify() throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        List<String> missingIndexes = findMissingIndexes();
+        if (!missingIndexes.isEmpty()) {
+            throw new IllegalStateException(format(MISSING_INDEXES_MESSAGE, String.join(", ", missingIndexes)));
+        }
+    }
+
+    List<String> findMissingIndexes() throws SQLException {
+        List<String> missingIndexes = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> expected : EXPECTED_INDEXES.entrySet()) {
+                Set<String> presentIndexes = findIndexNames(metaData, expected.getKey());
+                expected.getValue().stream()
+                    .filter(index -> !presentIndexes.contains(index))
+                    .forEach(index -> missingIndexes.add(expected.getKey() + "." + index));
+            }
+        }
+        return missingIndexes;
+    }
+
+    private static Set<String> findIndexNames(DatabaseMetaData metaData, String table) throws SQLException {
+        Set<String> indexNames = new HashSet<>();
+        try (ResultSet indexInfo = metaData.getIndexInfo(null, null, table, false, true)) {
+            while (indexInfo.next()) {
+                String indexName = indexInfo.getString("INDEX_NAME");
+                if (indexName != null) {
+                    indexNames.add(indexName.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return indexNames;
+    }
+
+}
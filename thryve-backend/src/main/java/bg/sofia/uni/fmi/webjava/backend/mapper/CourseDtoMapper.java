@@ -1,12 +1,14 @@
 package bg.sofia.uni.fmi.webjava.backend.mapper;
 
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseCreateDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseOutlineDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CoursePreviewDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -19,6 +21,11 @@ public interface CourseDtoMapper {
 
     CoursePreviewDto mapCourseToPreviewDto(Course course);
 
+    // sections and assignments are loaded with their own queries, the lazy collections are never touched
+    @Mapping(target = "sections", ignore = true)
+    @Mapping(target = "assignments", ignore = true)
+    CourseOutlineDto mapCourseToOutlineDto(Course course);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateCourseFromDto(CourseUpdateDto createCourseDto, @MappingTarget Course course);
 
@@ -3,10 +3,12 @@ package bg.sofia.uni.fmi.webjava.backend.mapper;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Notification;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring", uses = {UserDtoMapper.class, CourseDtoMapper.class})
 public interface NotificationDtoMapper {
 
+    @Mapping(target = "broadcast", expression = "java(notification.getRecipient() == null)")
     NotificationResponseDto mapToResponseDto(Notification notification);
 
 }
@@ -3,6 +3,7 @@ package bg.sofia.uni.fmi.webjava.backend.mapper;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserSnapshot;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
@@ -16,6 +17,10 @@ public interface UserDtoMapper {
 
     UserResponseDto mapUserToResponseDto(User user);
 
+    UserResponseDto mapSnapshotToResponseDto(UserSnapshot userSnapshot);
+
+    UserSnapshot mapUserToSnapshot(User user);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateUserFromDto(UserUpdateDto userUpdateDto, @MappingTarget User user);
 
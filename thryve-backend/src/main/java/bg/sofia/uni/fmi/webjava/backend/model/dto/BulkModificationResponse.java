@@ -0,0 +1,15 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto;
+
+import lombok.Getter;
+
+@Getter
+public class BulkModificationResponse extends MessageResponse {
+
+    private final int affected;
+
+    public BulkModificationResponse(String message, int affected) {
+        super(message);
+        this.affected = affected;
+    }
+
+}
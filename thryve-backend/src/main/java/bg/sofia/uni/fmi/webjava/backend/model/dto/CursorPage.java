@@ -0,0 +1,18 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    // null on the last page
+    private String nextCursor;
+
+}
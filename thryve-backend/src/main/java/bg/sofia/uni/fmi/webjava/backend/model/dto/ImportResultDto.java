@@ -0,0 +1,15 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+
+    private long received;
+    private long imported;
+
+}
@@ -0,0 +1,21 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationIdsDto {
+
+    @NotEmpty
+    @Size(max = 500, message = "At most 500 notifications can be modified at once!")
+    private List<UUID> ids;
+
+}
@@ -16,6 +16,7 @@ public class NotificationResponseDto {
     private String title;
     private String message;
     private boolean read;
+    private boolean broadcast;
     private LocalDateTime createdAt;
     private UserResponseDto sender;
     private CoursePreviewDto course;
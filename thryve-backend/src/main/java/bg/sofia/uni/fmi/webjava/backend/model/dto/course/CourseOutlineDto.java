@@ -0,0 +1,23 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto.course;
+
+import bg.sofia.uni.fmi.webjava.backend.model.dto.assignment.AssignmentResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.section.SectionResponseDto;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+public class CourseOutlineDto {
+
+    private UUID id;
+    private String title;
+    private String description;
+    private String imageUrl;
+    private List<SectionResponseDto> sections = new ArrayList<>();
+    private List<AssignmentResponseDto> assignments = new ArrayList<>();
+
+}
@@ -0,0 +1,25 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto.course;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+
+// The counts are part of the version because deleting a row does not move any updatedAt forward
+public record CourseOutlineVersion(LocalDateTime courseUpdatedAt,
+                                   LocalDateTime sectionsUpdatedAt, long sectionCount,
+                                   LocalDateTime resourcesUpdatedAt, long resourceCount,
+                                   LocalDateTime assignmentsUpdatedAt, long assignmentCount) {
+
+    public String toETag() {
+        LocalDateTime lastUpdatedAt = Stream.of(courseUpdatedAt, sectionsUpdatedAt, resourcesUpdatedAt,
+                assignmentsUpdatedAt)
+            .filter(updatedAt -> updatedAt != null)
+            .max(LocalDateTime::compareTo)
+            .orElse(LocalDateTime.MIN);
+        long lastUpdatedMicros = lastUpdatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000
+            + lastUpdatedAt.getNano() / 1_000;
+        return "\"" + Long.toHexString(lastUpdatedMicros) + "-" + sectionCount + "-" + resourceCount + "-"
+            + assignmentCount + "\"";
+    }
+
+}
@@ -0,0 +1,22 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResultDto {
+
+    private int line;
+    private String email;
+    private UserImportStatus status;
+    private UUID id;
+    private String message;
+
+}
@@ -0,0 +1,8 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto.user;
+
+public enum UserImportStatus {
+    CREATED,
+    INVALID,
+    DUPLICATE,
+    FAILED
+}
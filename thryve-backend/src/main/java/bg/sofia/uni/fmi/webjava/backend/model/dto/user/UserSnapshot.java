@@ -0,0 +1,18 @@
+package bg.sofia.uni.fmi.webjava.backend.model.dto.user;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.UserRole;
+
+import java.util.UUID;
+
+// Immutable copy of a user kept in the user cache. Spring Security erases the password of the UserDetails
+// it authenticates, so cached entries must never be handed out directly.
+public record UserSnapshot(
+    UUID id,
+    String username,
+    String firstName,
+    String lastName,
+    String email,
+    String password,
+    UserRole role
+) {
+}
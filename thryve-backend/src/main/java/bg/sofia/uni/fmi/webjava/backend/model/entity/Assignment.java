@@ -1,5 +1,6 @@
 package bg.sofia.uni.fmi.webjava.backend.model.entity;
 
+import bg.sofia.uni.fmi.webjava.backend.config.SecondLevelCacheConfiguration;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,6 +10,8 @@ import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -16,6 +19,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "assignments")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.ASSIGNMENTS_REGION)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package bg.sofia.uni.fmi.webjava.backend.model.entity;
 
+import bg.sofia.uni.fmi.webjava.backend.config.SecondLevelCacheConfiguration;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,12 +10,15 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "courses")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.COURSES_REGION)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
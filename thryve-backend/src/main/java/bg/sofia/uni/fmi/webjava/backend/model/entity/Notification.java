@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    // serves keyset paging of the feed, including broadcasts through the recipient_id is null prefix
+    @Index(name = "idx_notifications_recipient_created_id", columnList = "recipient_id, created_at desc, id")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -24,8 +27,8 @@ public class Notification extends BaseEntity {
     @Column(name = "read", nullable = false)
     private boolean read = false;
 
-    @ManyToOne(optional = false)
-    @JoinColumn(name = "recipient_id", nullable = false)
+    @ManyToOne
+    @JoinColumn(name = "recipient_id")
     private User recipient;
 
     @ManyToOne
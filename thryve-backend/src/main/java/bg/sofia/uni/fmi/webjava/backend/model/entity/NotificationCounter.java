@@ -0,0 +1,27 @@
+package bg.sofia.uni.fmi.webjava.backend.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "notification_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationCounter {
+
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+
+}
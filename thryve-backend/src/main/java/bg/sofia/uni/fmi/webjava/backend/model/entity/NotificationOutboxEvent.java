@@ -0,0 +1,54 @@
+package bg.sofia.uni.fmi.webjava.backend.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_outbox")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class NotificationOutboxEvent extends BaseEntity {
+
+    @Column(name = "type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private NotificationOutboxEventType type;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "course_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Course course;
+
+    @ManyToOne
+    @JoinColumn(name = "sender_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    private User sender;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "dead_lettered", nullable = false)
+    private boolean deadLettered = false;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+}
@@ -0,0 +1,6 @@
+package bg.sofia.uni.fmi.webjava.backend.model.entity;
+
+public enum NotificationOutboxEventType {
+    COURSE_CREATED,
+    COURSE_UPDATED
+}
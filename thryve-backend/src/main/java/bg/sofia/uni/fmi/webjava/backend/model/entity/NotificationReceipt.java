@@ -0,0 +1,38 @@
+package bg.sofia.uni.fmi.webjava.backend.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+@Entity
+@Table(
+    name = "notification_receipts",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"notification_id", "user_id"})
+)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class NotificationReceipt extends BaseEntity {
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "notification_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Notification notification;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "dismissed", nullable = false)
+    private boolean dismissed = false;
+
+}
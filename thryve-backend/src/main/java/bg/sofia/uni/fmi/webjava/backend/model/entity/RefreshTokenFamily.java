@@ -0,0 +1,47 @@
+package bg.sofia.uni.fmi.webjava.backend.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// All refresh tokens descending from one login. Only the latest one, current_token_id, may be used;
+// presenting an older one means the family leaked, so the whole family gets revoked. The exception is
+// previous_token_id presented shortly after rotated_at, which is a concurrent or retried refresh.
+@Entity
+@Table(
+    name = "refresh_token_families",
+    indexes = @Index(name = "idx_refresh_token_families_subject", columnList = "subject")
+)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenFamily extends BaseEntity {
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "current_token_id", nullable = false)
+    private UUID currentTokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked", nullable = false)
+    private boolean revoked;
+
+    @Column(name = "previous_token_id")
+    private UUID previousTokenId;
+
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+
+}
@@ -1,5 +1,6 @@
 package bg.sofia.uni.fmi.webjava.backend.model.entity;
 
+import bg.sofia.uni.fmi.webjava.backend.config.SecondLevelCacheConfiguration;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToOne;
@@ -7,11 +8,14 @@ import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "resources")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.RESOURCES_REGION)
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -1,5 +1,6 @@
 package bg.sofia.uni.fmi.webjava.backend.model.entity;
 
+import bg.sofia.uni.fmi.webjava.backend.config.SecondLevelCacheConfiguration;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,12 +10,15 @@ import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "sections")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.SECTIONS_REGION)
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
@@ -32,6 +36,7 @@ public class Section extends BaseEntity {
     @ManyToOne
     private Course course;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.SECTION_RESOURCES_REGION)
     @OneToMany(mappedBy = "section",cascade = CascadeType.REMOVE, orphanRemoval = true)
     private List<Resource> resources = new ArrayList<>();
 
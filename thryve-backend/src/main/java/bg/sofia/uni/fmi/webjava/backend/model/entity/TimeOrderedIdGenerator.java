@@ -0,0 +1,32 @@
+package bg.sofia.uni.fmi.webjava.backend.model.entity;
+
+import com.github.f4b6a3.ulid.UlidCreator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+
+// Monotonic ULIDs stored as uuid. The first 48 bits are the millisecond timestamp, so new rows land on the right
+// edge of the primary key index instead of splitting random pages all over it. Ids created in the same millisecond
+// keep increasing as well.
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    public static UUID nextId() {
+        return UlidCreator.getMonotonicUlid().toUuid();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+}
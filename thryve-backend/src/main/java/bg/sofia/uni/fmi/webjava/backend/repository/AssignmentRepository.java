@@ -1,16 +1,23 @@
 package bg.sofia.uni.fmi.webjava.backend.repository;
 
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Assignment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface AssignmentRepository extends JpaRepository<Assignment, UUID> {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Page<Assignment> findAssignmentsByCourseId(UUID courseId, Pageable pageable);
 
+    List<Assignment> findAllByCourseIdOrderByCreatedAt(UUID courseId);
+
 }
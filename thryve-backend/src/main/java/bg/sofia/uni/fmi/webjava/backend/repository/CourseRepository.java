@@ -1,12 +1,29 @@
 package bg.sofia.uni.fmi.webjava.backend.repository;
 
+import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseOutlineVersion;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, UUID> {
 
+    @Query("""
+        select new bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseOutlineVersion(
+            c.updatedAt,
+            (select max(s.updatedAt) from Section s where s.course = c),
+            (select count(s) from Section s where s.course = c),
+            (select max(r.updatedAt) from Resource r where r.section.course = c),
+            (select count(r) from Resource r where r.section.course = c),
+            (select max(a.updatedAt) from Assignment a where a.course = c),
+            (select count(a) from Assignment a where a.course = c))
+        from Course c
+        where c.id = :id
+        """)
+    Optional<CourseOutlineVersion> findOutlineVersionById(UUID id);
+
 }
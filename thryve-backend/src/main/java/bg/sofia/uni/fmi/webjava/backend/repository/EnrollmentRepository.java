@@ -1,11 +1,17 @@
 package bg.sofia.uni.fmi.webjava.backend.repository;
 
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Enrollment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,10 +20,38 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
 
     List<Enrollment> findByCourse(Course course);
 
+    long countByCourse(Course course);
+
+    // keyset pages over idx_enrollments_course_user, so a large course is never held in memory at once
+    @Query(value = """
+        select user_id from enrollments
+        where course_id = :courseId and user_id > :after
+        order by user_id
+        limit :limit
+        """, nativeQuery = true)
+    List<UUID> findUserIdsByCourseIdAfter(UUID courseId, UUID after, int limit);
+
+    @Query("select e.user.id from Enrollment e where e.course.id = :courseId and e.user.id in :userIds")
+    List<UUID> findEnrolledUserIds(UUID courseId, Collection<UUID> userIds);
+
     Page<Enrollment> findEnrollmentByCourseIdAndUserId(UUID courseId, UUID userId, Pageable pageable);
 
     Page<Enrollment> findEnrollmentsByCourseId(UUID courseId, Pageable pageable);
 
     Page<Enrollment> findEnrollmentsByUserId(UUID userId, Pageable pageable);
 
+    // moves imported rows in from the staging table, dropping duplicates and rows for unknown users or courses
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enrollments"))
+    @Query(value = """
+        insert into enrollments (id, created_at, updated_at, type, user_id, course_id)
+        select distinct on (s.user_id, s.course_id) s.id, s.created_at, s.updated_at, s.type, s.user_id, s.course_id
+        from enrollments_staging s
+        where exists (select 1 from users u where u.id = s.user_id)
+          and exists (select 1 from courses c where c.id = s.course_id)
+          and not exists (select 1 from enrollments e where e.user_id = s.user_id and e.course_id = s.course_id)
+        order by s.user_id, s.course_id, s.id
+        """, nativeQuery = true)
+    int insertStaged();
+
 }
@@ -0,0 +1,110 @@
+package bg.sofia.uni.fmi.webjava.backend.repository;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, UUID> {
+
+    @Modifying
+    @Query(value = """
+        insert into notification_counters (user_id, unread_count)
+        values (:userId, greatest(:delta, 0))
+        on conflict (user_id) do update
+        set unread_count = greatest(notification_counters.unread_count + :delta, 0)
+        """, nativeQuery = true)
+    int adjust(UUID userId, long delta);
+
+    @Modifying
+    @Query(value = """
+        insert into notification_counters (user_id, unread_count)
+        select u.id, 1 from users u where u.id in (:userIds)
+        on conflict (user_id) do update
+        set unread_count = notification_counters.unread_count + 1
+        """, nativeQuery = true)
+    int incrementAll(Collection<UUID> userIds);
+
+    // a broadcast is visible to the users registered by the time it was sent
+    @Modifying
+    @Query(value = """
+        insert into notification_counters (user_id, unread_count)
+        select u.id, 1 from users u
+        where u.created_at <= :sentAt
+        order by u.id
+        on conflict (user_id) do update
+        set unread_count = notification_counters.unread_count + 1
+        """, nativeQuery = true)
+    int incrementRegisteredBy(LocalDateTime sentAt);
+
+    // takes the given broadcasts off the counts of everyone who had not read them yet
+    @Query(value = """
+        update notification_counters c
+        set unread_count = greatest(c.unread_count - b.unread, 0)
+        from (
+            select u.id as user_id, count(*) as unread
+            from notifications n join users u on u.created_at <= n.created_at
+            where n.id in (:broadcastIds) and n.recipient_id is null
+              and not exists (select 1 from notification_receipts r
+                              where r.notification_id = n.id and r.user_id = u.id)
+            group by u.id
+        ) b
+        where c.user_id = b.user_id
+        returning c.user_id
+        """, nativeQuery = true)
+    List<UUID> releaseUnreadBroadcasts(Collection<UUID> broadcastIds);
+
+    @Modifying
+    @Query("update NotificationCounter c set c.unreadCount = 0 where c.userId = :userId")
+    int reset(UUID userId);
+
+    @Query(value = "select u.id from users u where u.id > :after order by u.id limit :limit", nativeQuery = true)
+    List<UUID> findUserIdsAfter(UUID after, int limit);
+
+    @Modifying
+    @Query(value = """
+        insert into notification_counters (user_id, unread_count)
+        select u.id, 0 from users u where u.id in (:userIds)
+        on conflict (user_id) do nothing
+        """, nativeQuery = true)
+    int insertMissing(Collection<UUID> userIds);
+
+    @Query(value = """
+        select c.user_id from notification_counters c
+        where c.user_id in (:userIds)
+        order by c.user_id
+        for update
+        """, nativeQuery = true)
+    List<UUID> lockAll(Collection<UUID> userIds);
+
+    @Modifying
+    @Query(value = """
+        update notification_counters c
+        set unread_count =
+            (select count(*) from notifications n where n.recipient_id = c.user_id and n.read = false)
+            + (select count(*) from notifications n join users u on u.id = c.user_id
+               where n.recipient_id is null and n.created_at >= u.created_at
+                 and not exists (select 1 from notification_receipts r
+                                 where r.notification_id = n.id and r.user_id = c.user_id))
+        where c.user_id in (:userIds)
+        """, nativeQuery = true)
+    int recount(Collection<UUID> userIds);
+
+    @Query(value = "select pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryLock(long key);
+
+    @Modifying
+    @Query(value = """
+        delete from notification_counters c
+        where not exists (select 1 from users u where u.id = c.user_id)
+        """, nativeQuery = true)
+    int deleteOrphaned();
+
+}
@@ -0,0 +1,44 @@
+package bg.sofia.uni.fmi.webjava.backend.repository;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEvent;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEventType;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEvent, UUID> {
+
+    @Query(value = """
+        select * from notification_outbox
+        where available_at <= :now and not dead_lettered
+        order by available_at
+        limit 1
+        for update skip locked
+        """, nativeQuery = true)
+    Optional<NotificationOutboxEvent> claimNext(LocalDateTime now);
+
+    // held until the transaction ends, so concurrent updates to one course enqueue and coalesce one at a time
+    @Query(value = """
+        select 1 from (select pg_advisory_xact_lock(:namespace, hashtext(cast(:courseId as text)))) locked
+        """, nativeQuery = true)
+    int lockCourse(int namespace, UUID courseId);
+
+    // only rows still waiting out their window qualify; claimable ones may already be in a dispatcher's hands
+    @Modifying
+    @Query("""
+        update NotificationOutboxEvent e
+        set e.sender = :sender, e.message = :message, e.updatedAt = local datetime
+        where e.course.id = :courseId and e.type = :type and e.attempts = 0 and e.availableAt > :now
+        """)
+    int coalescePending(
+        UUID courseId, NotificationOutboxEventType type, User sender, String message, LocalDateTime now
+    );
+
+}
@@ -0,0 +1,89 @@
+package bg.sofia.uni.fmi.webjava.backend.repository;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface NotificationReceiptRepository extends JpaRepository<NotificationReceipt, UUID> {
+
+    @Query("""
+        select r.notification.id from NotificationReceipt r
+        where r.user.id = :userId and r.notification.id in :notificationIds
+        """)
+    Set<UUID> findReadNotificationIds(UUID userId, Collection<UUID> notificationIds);
+
+    // returns 0 when the user already had a receipt, i.e. the broadcast was no longer unread
+    @Modifying
+    @Query(value = """
+        insert into notification_receipts (id, created_at, updated_at, notification_id, user_id, dismissed)
+        values (time_ordered_uuid(), now(), now(), :notificationId, :userId, :dismissed)
+        on conflict (notification_id, user_id) do nothing
+        """, nativeQuery = true)
+    int insertReceipt(UUID notificationId, UUID userId, boolean dismissed);
+
+    @Modifying
+    @Query("""
+        update NotificationReceipt r set r.dismissed = true, r.updatedAt = local datetime
+        where r.notification.id = :notificationId and r.user.id = :userId and r.dismissed = false
+        """)
+    int dismissReceipt(UUID notificationId, UUID userId);
+
+    @Modifying
+    @Query(value = """
+        insert into notification_receipts (id, created_at, updated_at, notification_id, user_id, dismissed)
+        select time_ordered_uuid(), now(), now(), n.id, u.id, true
+        from notifications n join users u on u.id = :userId
+        where n.recipient_id is null and n.created_at >= u.created_at
+        on conflict (notification_id, user_id) do update
+        set dismissed = true, updated_at = now()
+        """, nativeQuery = true)
+    int dismissAllBroadcasts(UUID userId);
+
+    @Modifying
+    @Query("""
+        update NotificationReceipt r set r.dismissed = true, r.updatedAt = local datetime
+        where r.user.id = :userId and r.dismissed = false
+        """)
+    int dismissReadBroadcasts(UUID userId);
+
+    // the mark-read inserts skip existing receipts, so the returned count is the number of newly read broadcasts
+
+    @Modifying
+    @Query(value = """
+        insert into notification_receipts (id, created_at, updated_at, notification_id, user_id, dismissed)
+        select time_ordered_uuid(), now(), now(), n.id, u.id, false
+        from notifications n join users u on u.id = :userId
+        where n.recipient_id is null and n.created_at >= u.created_at
+        on conflict (notification_id, user_id) do nothing
+        """, nativeQuery = true)
+    int markAllBroadcastsRead(UUID userId);
+
+    @Modifying
+    @Query(value = """
+        insert into notification_receipts (id, created_at, updated_at, notification_id, user_id, dismissed)
+        select time_ordered_uuid(), now(), now(), n.id, u.id, false
+        from notifications n join users u on u.id = :userId
+        where n.recipient_id is null and n.created_at >= u.created_at and n.id in (:ids)
+        on conflict (notification_id, user_id) do nothing
+        """, nativeQuery = true)
+    int markBroadcastsRead(UUID userId, Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = """
+        insert into notification_receipts (id, created_at, updated_at, notification_id, user_id, dismissed)
+        select time_ordered_uuid(), now(), now(), n.id, u.id, false
+        from notifications n join users u on u.id = :userId
+        where n.recipient_id is null and n.created_at >= u.created_at and n.created_at < :before
+        on conflict (notification_id, user_id) do nothing
+        """, nativeQuery = true)
+    int markBroadcastsReadBefore(UUID userId, LocalDateTime before);
+
+}
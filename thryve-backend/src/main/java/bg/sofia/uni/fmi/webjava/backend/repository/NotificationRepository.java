@@ -1,17 +1,39 @@
 package bg.sofia.uni.fmi.webjava.backend.repository;
 
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
+    interface PurgedNotifications {
+
+        UUID getRecipientId();
+
+        long getPurged();
+
+        long getUnread();
+
+    }
+
+    interface FanOutNotification {
+
+        UUID getRecipientId();
+
+        UUID getId();
+
+    }
+
     @Query("select n from Notification n where n.sender.id = :senderId order by n.createdAt desc")
     Page<Notification> findPageBySenderId(UUID senderId, Pageable pageable);
 
@@ -19,11 +41,151 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Query("delete from Notification n where n.sender.id = :senderId")
     int deleteAllBySenderId(UUID senderId);
 
+    @Query("""
+        select n from Notification n
+        where n.recipient.id = :recipientId
+           or (n.recipient is null
+               and n.createdAt >= (select u.createdAt from User u where u.id = :recipientId)
+               and not exists (select r from NotificationReceipt r
+                               where r.notification = n and r.user.id = :recipientId and r.dismissed = true))
+        """)
     Page<Notification> findByRecipientId(UUID recipientId, Pageable pageable);
 
-    long countByRecipientIdAndReadFalse(UUID recipientId);
+    // keyset paging follows the (recipient_id, created_at desc, id) index order, hence the opposite id direction
+
+    @Query("""
+        select n from Notification n
+        where (n.recipient.id = :recipientId
+               or (n.recipient is null
+                   and n.createdAt >= (select u.createdAt from User u where u.id = :recipientId)
+                   and not exists (select r from NotificationReceipt r
+                                   where r.notification = n and r.user.id = :recipientId and r.dismissed = true)))
+          and (n.createdAt < :createdAt or (n.createdAt = :createdAt and n.id > :id))
+        order by n.createdAt desc, n.id asc
+        """)
+    List<Notification> findFeedNewestFirst(UUID recipientId, LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("""
+        select n from Notification n
+        where (n.recipient.id = :recipientId
+               or (n.recipient is null
+                   and n.createdAt >= (select u.createdAt from User u where u.id = :recipientId)
+                   and not exists (select r from NotificationReceipt r
+                                   where r.notification = n and r.user.id = :recipientId and r.dismissed = true)))
+          and (n.createdAt > :createdAt or (n.createdAt = :createdAt and n.id < :id))
+        order by n.createdAt asc, n.id desc
+        """)
+    List<Notification> findFeedOldestFirst(UUID recipientId, LocalDateTime createdAt, UUID id, Limit limit);
+
+    // the same visibility rules as the feed: sent after the user registered and not dismissed by them
+    @Query("""
+        select n from Notification n
+        where n.id = :id and n.recipient is null
+          and n.createdAt >= (select u.createdAt from User u where u.id = :recipientId)
+          and not exists (select r from NotificationReceipt r
+                          where r.notification = n and r.user.id = :recipientId and r.dismissed = true)
+        """)
+    Optional<Notification> findVisibleBroadcastById(UUID id, UUID recipientId);
 
     Optional<Notification> findByIdAndRecipientId(UUID id, UUID recipientId);
 
-    void deleteByRecipientId(UUID recipientId);
+    // the rows of one course fan-out share the creation time of its first notification
+    @Query("""
+        select n.recipient.id as recipientId, n.id as id from Notification n
+        where n.course.id = :courseId and n.recipient.id in :recipientIds
+          and n.createdAt = (select f.createdAt from Notification f where f.id = :firstNotificationId)
+        """)
+    List<FanOutNotification> findCourseFanOut(UUID courseId, UUID firstNotificationId, Collection<UUID> recipientIds);
+
+    @Modifying
+    @Query("delete from Notification n where n.recipient.id = :recipientId")
+    int deleteByRecipientId(UUID recipientId);
+
+    // Retention purges delete one bounded chunk per call and report what was removed per recipient, so the
+    // unread counters can be adjusted in the same transaction. Broadcasts are locked first and purged by id,
+    // as everyone who had not read them needs their counter lowered before the rows go.
+
+    @Query(value = """
+        select id from notifications
+        where recipient_id is null and created_at < :cutoff
+        limit :batchSize for update skip locked
+        """, nativeQuery = true)
+    List<UUID> lockBroadcastsOlderThan(LocalDateTime cutoff, int batchSize);
+
+    @Query(value = """
+        with purged as (
+            delete from notifications where id in (
+                select id from notifications where recipient_id is not null and created_at < :cutoff
+                limit :batchSize for update skip locked
+            )
+            returning recipient_id, read
+        )
+        select recipient_id as "recipientId", count(*) as "purged", count(*) filter (where not read) as "unread"
+        from purged group by recipient_id
+        """, nativeQuery = true)
+    List<PurgedNotifications> purgeOlderThan(LocalDateTime cutoff, int batchSize);
+
+    // keeps each recipient's newest unread notifications first, so read ones are purged before unread ones
+    @Query(value = """
+        with excess as (
+            select id from (
+                select id,
+                       row_number() over (partition by recipient_id order by read, created_at desc, id) as recipient_rank
+                from notifications
+                where recipient_id in (
+                    select recipient_id from notifications
+                    where recipient_id is not null
+                    group by recipient_id having count(*) > :maxPerRecipient
+                )
+            ) ranked
+            where recipient_rank > :maxPerRecipient
+            limit :batchSize
+        ), purged as (
+            delete from notifications n using excess where n.id = excess.id
+            returning n.recipient_id, n.read
+        )
+        select recipient_id as "recipientId", count(*) as "purged", count(*) filter (where not read) as "unread"
+        from purged group by recipient_id
+        """, nativeQuery = true)
+    List<PurgedNotifications> purgeExcessPerRecipient(int maxPerRecipient, int batchSize);
+
+    // Single reads and deletes check the read flag in the statement itself, so of two concurrent requests only
+    // one sees the notification as unread and lowers the counter.
+
+    @Modifying
+    @Query("""
+        update Notification n set n.read = true, n.updatedAt = local datetime
+        where n.id = :id and n.recipient.id = :recipientId and n.read = false
+        """)
+    int markReadByIdAndRecipientId(UUID id, UUID recipientId);
+
+    @Query(value = "delete from notifications where id = :id and recipient_id = :recipientId returning read",
+        nativeQuery = true)
+    List<Boolean> deleteByIdAndRecipientIdReturningRead(UUID id, UUID recipientId);
+
+    @Modifying
+    @Query("delete from Notification n where n.recipient.id = :recipientId and n.read = true")
+    int deleteReadByRecipientId(UUID recipientId);
+
+    @Modifying
+    @Query("""
+        update Notification n set n.read = true, n.updatedAt = local datetime
+        where n.recipient.id = :recipientId and n.read = false
+        """)
+    int markAllReadByRecipientId(UUID recipientId);
+
+    @Modifying
+    @Query("""
+        update Notification n set n.read = true, n.updatedAt = local datetime
+        where n.recipient.id = :recipientId and n.read = false and n.id in :ids
+        """)
+    int markReadByRecipientIdAndIdIn(UUID recipientId, Collection<UUID> ids);
+
+    @Modifying
+    @Query("""
+        update Notification n set n.read = true, n.updatedAt = local datetime
+        where n.recipient.id = :recipientId and n.read = false and n.createdAt < :before
+        """)
+    int markReadByRecipientIdAndCreatedAtBefore(UUID recipientId, LocalDateTime before);
+
 }
@@ -0,0 +1,53 @@
+package bg.sofia.uni.fmi.webjava.backend.repository;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.RefreshTokenFamily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenFamilyRepository extends JpaRepository<RefreshTokenFamily, UUID> {
+
+    // compare-and-set on the current token, so two concurrent uses of the same token cannot both succeed
+    @Modifying
+    @Query("""
+        update RefreshTokenFamily f
+        set f.currentTokenId = :nextTokenId, f.previousTokenId = :tokenId, f.expiresAt = :expiresAt,
+            f.rotatedAt = local datetime, f.updatedAt = local datetime
+        where f.id = :id and f.currentTokenId = :tokenId and f.revoked = false and f.expiresAt > local datetime
+        """)
+    int rotate(UUID id, UUID tokenId, UUID nextTokenId, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("""
+        update RefreshTokenFamily f set f.revoked = true, f.updatedAt = local datetime
+        where f.id = :id and f.revoked = false
+        """)
+    int revoke(UUID id);
+
+    @Query("select f.id from RefreshTokenFamily f where f.subject = :subject and f.revoked = false")
+    List<UUID> findActiveIdsBySubject(String subject);
+
+    @Modifying
+    @Query("""
+        update RefreshTokenFamily f set f.revoked = true, f.updatedAt = local datetime
+        where f.subject = :subject and f.revoked = false
+        """)
+    int revokeAllBySubject(String subject);
+
+    @Query("""
+        select f.id from RefreshTokenFamily f
+        where f.revoked = true and f.updatedAt > :since and f.expiresAt > local datetime
+        """)
+    List<UUID> findIdsRevokedSince(LocalDateTime since);
+
+    @Modifying
+    @Query("delete from RefreshTokenFamily f where f.expiresAt < :cutoff")
+    int deleteAllExpiredBefore(LocalDateTime cutoff);
+
+}
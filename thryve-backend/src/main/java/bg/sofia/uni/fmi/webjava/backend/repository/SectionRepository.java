@@ -2,16 +2,25 @@ package bg.sofia.uni.fmi.webjava.backend.repository;
 
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Section;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SectionRepository extends JpaRepository<Section, UUID> {
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Page<Section> findSectionsByCourseIdOrderByOrderNumber(UUID courseId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "resources")
+    List<Section> findAllWithResourcesByCourseIdOrderByOrderNumber(UUID courseId);
+
 }
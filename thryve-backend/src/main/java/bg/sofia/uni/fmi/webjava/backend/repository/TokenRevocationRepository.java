@@ -0,0 +1,21 @@
+package bg.sofia.uni.fmi.webjava.backend.repository;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+
+    List<TokenRevocation> findAllByRevokedAtAfter(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from TokenRevocation r where r.revokedAt < :cutoff")
+    int deleteAllRevokedBefore(LocalDateTime cutoff);
+
+}
@@ -2,9 +2,13 @@ package bg.sofia.uni.fmi.webjava.backend.repository;
 
 import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +18,14 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
 
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    @Modifying
+    @Query("update User u set u.password = :password, u.updatedAt = local datetime where u.email = :email")
+    int updatePasswordByEmail(String email, String password);
+
 }
@@ -1,11 +1,15 @@
 package bg.sofia.uni.fmi.webjava.backend.security.auth;
 
+import bg.sofia.uni.fmi.webjava.backend.model.dto.MessageResponse;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserLoginDto;
 import bg.sofia.uni.fmi.webjava.backend.security.jwt.RefreshTokenRequest;
 import bg.sofia.uni.fmi.webjava.backend.security.jwt.TokenPair;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,11 +20,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class AuthController {
 
+    public static final String REVOKED_SESSIONS_MESSAGE = "All sessions were revoked!";
+
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<TokenPair> login(@Valid @RequestBody UserLoginDto userLoginDto) {
-        return ResponseEntity.ok(authService.login(userLoginDto));
+    public ResponseEntity<TokenPair> login(@Valid @RequestBody UserLoginDto userLoginDto, HttpServletRequest request) {
+        return ResponseEntity.ok(authService.login(userLoginDto, request.getRemoteAddr()));
     }
 
     @PostMapping("/refresh-token")
@@ -29,4 +35,11 @@ public class AuthController {
         return ResponseEntity.ok(tokenPair);
     }
 
+    @PreAuthorize("hasAnyRole('STANDARD','CREATOR','ADMIN')")
+    @PostMapping("/logout-all")
+    public ResponseEntity<MessageResponse> logoutAll(Authentication auth) {
+        authService.revokeAllSessions(auth.getName());
+        return ResponseEntity.ok(new MessageResponse(REVOKED_SESSIONS_MESSAGE));
+    }
+
 }
@@ -1,58 +1,93 @@
 package bg.sofia.uni.fmi.webjava.backend.security.auth;
 
+import bg.sofia.uni.fmi.webjava.backend.exception.InvalidRefreshTokenException;
+import bg.sofia.uni.fmi.webjava.backend.exception.TooManyLoginAttemptsException;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserLoginDto;
-import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
 import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtService;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.RefreshTokenGrant;
 import bg.sofia.uni.fmi.webjava.backend.security.jwt.RefreshTokenRequest;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.RefreshTokenService;
 import bg.sofia.uni.fmi.webjava.backend.security.jwt.TokenPair;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
-    private final UserRepository userRepository;
+    public static final String INVALID_REFRESH_TOKEN_MESSAGE = "Invalid refresh token!";
+    public static final String TOO_MANY_LOGIN_ATTEMPTS_MESSAGE = "Too many failed sign-in attempts, please try again later!";
+
     private final UserDetailsService userDetailsService;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
-    public TokenPair login(@Valid UserLoginDto userLoginDto) {
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(userLoginDto.getEmail(), userLoginDto.getPassword())
-        );
+    public TokenPair login(@Valid UserLoginDto userLoginDto, String clientIp) {
+        // checked before authenticating, so throttled attempts never cost a hash
+        if (loginAttemptLimiter.isBlocked(userLoginDto.getEmail(), clientIp)) {
+            throw new TooManyLoginAttemptsException(
+                TOO_MANY_LOGIN_ATTEMPTS_MESSAGE, loginAttemptLimiter.secondsUntilReset());
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(userLoginDto.getEmail(), userLoginDto.getPassword())
+            );
+        } catch (BadCredentialsException e) {
+            loginAttemptLimiter.recordFailure(userLoginDto.getEmail(), clientIp);
+            throw e;
+        }
+        loginAttemptLimiter.recordSuccess(userLoginDto.getEmail());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        return jwtService.generateTokenPair(authentication);
+        RefreshTokenGrant grant = refreshTokenService.start(authentication.getName());
+        return jwtService.generateTokenPair(authentication, grant);
     }
 
     public TokenPair refreshToken(@Valid RefreshTokenRequest refreshTokenRequest) {
-        String refreshToken = refreshTokenRequest.getRefreshToken();
-        if (!jwtService.isRefreshToken(refreshToken)) {
-            throw new IllegalArgumentException("Invalid refresh token!");
+        Claims claims = jwtService.extractClaims(refreshTokenRequest.getRefreshToken());
+        if (!jwtService.isRefreshToken(claims)) {
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN_MESSAGE);
         }
 
-        String username = jwtService.extractUsernameFromToken(refreshToken);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-        if (userDetails == null) {
-            throw new IllegalArgumentException("Invalid username or password!");
+        RefreshTokenGrant presented = jwtService.extractRefreshTokenGrant(claims);
+        if (presented == null) {
+            throw new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN_MESSAGE);
         }
 
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        RefreshTokenGrant next = refreshTokenService.rotate(presented)
+            .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_REFRESH_TOKEN_MESSAGE));
+
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                 userDetails,
                 null,
                 userDetails.getAuthorities()
         );
 
-        String accessToken = jwtService.generateAccessToken(authenticationToken);
-        return new TokenPair(accessToken, refreshToken);
+        return jwtService.generateTokenPair(authenticationToken, next);
     }
+
+    // ends every session of the subject: no refresh token can be used again and issued access tokens are denied
+    @Transactional
+    public void revokeAllSessions(String subject) {
+        refreshTokenService.revokeAll(subject);
+        tokenRevocationService.revokeSubject(subject);
+    }
+
 }
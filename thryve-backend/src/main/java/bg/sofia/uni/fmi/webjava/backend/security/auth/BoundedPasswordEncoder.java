@@ -0,0 +1,115 @@
+package bg.sofia.uni.fmi.webjava.backend.security.auth;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.PasswordHashingUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs the hashing of the delegate on a small fixed pool, so a login storm can use at most that many cores.
+// Once the queue is full new requests fail fast with a 503 instead of piling up on servlet threads.
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final String HASHING_UNAVAILABLE_MESSAGE = "Too many sign-in requests, please retry shortly!";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMs) {
+        this.delegate = delegate;
+        this.timeoutMs = timeoutMs;
+        this.executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().daemon().name("password-hashing-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // hashes a whole batch on all hashing threads, with at most one task per thread in flight, so sign-ins arriving
+    // in the meantime still find room in the queue
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        Deque<Future<String>> inFlight = new ArrayDeque<>();
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                if (inFlight.size() == executor.getMaximumPoolSize()) {
+                    encoded.add(await(inFlight.removeFirst()));
+                }
+                inFlight.addLast(enqueue(() -> delegate.encode(rawPassword)));
+            }
+            while (!inFlight.isEmpty()) {
+                encoded.add(await(inFlight.removeFirst()));
+            }
+            return encoded;
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        return await(enqueue(task));
+    }
+
+    private <T> Future<T> enqueue(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingUnavailableException(HASHING_UNAVAILABLE_MESSAGE);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException(HASHING_UNAVAILABLE_MESSAGE);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException(HASHING_UNAVAILABLE_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+}
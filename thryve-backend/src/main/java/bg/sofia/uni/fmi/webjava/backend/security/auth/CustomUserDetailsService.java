@@ -1,14 +1,17 @@
 package bg.sofia.uni.fmi.webjava.backend.security.auth;
 
-import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserSnapshot;
 import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
+import bg.sofia.uni.fmi.webjava.backend.service.UserCacheService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
@@ -17,23 +20,35 @@ import static java.lang.String.format;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
+    private final UserCacheService userCacheService;
     private final UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
+        UserSnapshot user = userCacheService.findByEmail(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found!"));
         return new org.springframework.security.core.userdetails.User(
-            user.getEmail(),
-            user.getPassword(),
+            user.email(),
+            user.password(),
             getAuthority(user)
         );
     }
 
-    private Collection<? extends GrantedAuthority> getAuthority(User user) {
-        return List.of(new SimpleGrantedAuthority(format("ROLE_%s", user.getRole().name())));
+    // called after a successful login when the stored hash was made with a lower BCrypt strength than configured
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        userCacheService.evict(List.of(user.getUsername()));
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+            .password(newPassword)
+            .build();
+    }
+
+    private Collection<? extends GrantedAuthority> getAuthority(UserSnapshot user) {
+        return List.of(new SimpleGrantedAuthority(format("ROLE_%s", user.role().name())));
     }
 
 }
@@ -0,0 +1,105 @@
+package bg.sofia.uni.fmi.webjava.backend.security.auth;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Counts failed logins per account and per client address in fixed windows. Keys are hashed into a fixed number
+// of stripes, each one a single long packing the window start (high 32 bits) and the failure count (low 32 bits),
+// so the limiter is lock-free and uses constant memory no matter how many emails an attacker tries.
+// Colliding keys share a stripe, and the hash is seeded per process so collisions cannot be planned offline.
+@Component
+public class LoginAttemptLimiter {
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    @Value("${thryve.auth.login-limits.stripes}")
+    private int stripes;
+
+    @Value("${thryve.auth.login-limits.window-seconds}")
+    private long windowSeconds;
+
+    @Value("${thryve.auth.login-limits.max-failures-per-account}")
+    private int maxFailuresPerAccount;
+
+    @Value("${thryve.auth.login-limits.max-failures-per-ip}")
+    private int maxFailuresPerIp;
+
+    @Value("${thryve.auth.login-limits.per-ip-enabled}")
+    private boolean perIpEnabled;
+
+    private final int seed;
+    private AtomicLongArray accountFailures;
+    private AtomicLongArray ipFailures;
+
+    public LoginAttemptLimiter() {
+        this(ThreadLocalRandom.current().nextInt());
+    }
+
+    LoginAttemptLimiter(int seed) {
+        this.seed = seed;
+    }
+
+    @PostConstruct
+    public void init() {
+        // rounded up to a power of two so a stripe can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        accountFailures = new AtomicLongArray(size);
+        ipFailures = new AtomicLongArray(size);
+    }
+
+    public boolean isBlocked(String email, String ip) {
+        long window = currentWindow();
+        return failures(accountFailures, normalize(email), window) >= maxFailuresPerAccount
+            || perIpEnabled && failures(ipFailures, ip, window) >= maxFailuresPerIp;
+    }
+
+    public void recordFailure(String email, String ip) {
+        long window = currentWindow();
+        increment(accountFailures, normalize(email), window);
+        if (perIpEnabled) {
+            increment(ipFailures, ip, window);
+        }
+    }
+
+    // only the account stripe is cleared, an address that keeps failing on other accounts stays counted
+    public void recordSuccess(String email) {
+        accountFailures.set(stripe(accountFailures, normalize(email)), 0L);
+    }
+
+    public long secondsUntilReset() {
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        return windowSeconds - nowSeconds % windowSeconds;
+    }
+
+    private long failures(AtomicLongArray counters, String key, long window) {
+        long packed = counters.get(stripe(counters, key));
+        return (packed >>> 32) == window ? packed & COUNT_MASK : 0;
+    }
+
+    private void increment(AtomicLongArray counters, String key, long window) {
+        int index = stripe(counters, key);
+        counters.getAndUpdate(index, packed -> {
+            long count = (packed >>> 32) == window ? packed & COUNT_MASK : 0;
+            return (window << 32) | Math.min(count + 1, COUNT_MASK);
+        });
+    }
+
+    private int stripe(AtomicLongArray counters, String key) {
+        int hash = (key.hashCode() ^ seed) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (counters.length() - 1);
+    }
+
+    private long currentWindow() {
+        return (System.currentTimeMillis() / 1000 / windowSeconds) & COUNT_MASK;
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
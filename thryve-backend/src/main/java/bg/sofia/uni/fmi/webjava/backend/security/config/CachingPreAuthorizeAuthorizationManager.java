@@ -0,0 +1,92 @@
+package bg.sofia.uni.fmi.webjava.backend.security.config;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Most @PreAuthorize expressions here only look at roles, so their outcome depends on nothing but the method and
+// the caller's authorities. Those decisions are evaluated once per method and authority set instead of parsing
+// and running SpEL on every call. Expressions that use arguments, the principal or beans go to the delegate.
+// The cache stays small: authorities come from signed tokens or the users table, so only a handful of sets exist.
+public class CachingPreAuthorizeAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final String ROLE_TERM = "(?:(?:hasRole|hasAnyRole|hasAuthority|hasAnyAuthority)"
+        + "\\(\\s*'[A-Za-z0-9_]+'(?:\\s*,\\s*'[A-Za-z0-9_]+')*\\s*\\)|isAuthenticated\\(\\)|permitAll|denyAll)";
+    private static final Pattern ROLE_ONLY_EXPRESSION =
+        Pattern.compile("\\s*" + ROLE_TERM + "(?:\\s+(?:and|or)\\s+" + ROLE_TERM + ")*\\s*");
+
+    private final AuthorizationManager<MethodInvocation> delegate;
+    private final Map<Method, Boolean> cacheableMethods = new ConcurrentHashMap<>();
+    private final Map<DecisionKey, AuthorizationResult> decisions = new ConcurrentHashMap<>();
+
+    public CachingPreAuthorizeAuthorizationManager(AuthorizationManager<MethodInvocation> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        if (!cacheableMethods.computeIfAbsent(method, m -> isRoleOnly(m, invocation))) {
+            return delegate.authorize(authentication, invocation);
+        }
+        Authentication current = authentication.get();
+        // isAuthenticated() also depends on the token type, not only on the authorities
+        DecisionKey key = new DecisionKey(method, current.getClass(), current.isAuthenticated(), current
+            .getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.toUnmodifiableSet()));
+        AuthorizationResult decision = decisions.get(key);
+        if (decision == null) {
+            decision = delegate.authorize(() -> current, invocation);
+            if (decision != null) {
+                decisions.putIfAbsent(key, decision);
+            }
+        }
+        return decision;
+    }
+
+    // still abstract in the interface, so it has to be implemented; callers go through authorize
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        AuthorizationResult result = authorize(authentication, invocation);
+        if (result == null || result instanceof AuthorizationDecision) {
+            return (AuthorizationDecision) result;
+        }
+        return new AuthorizationDecision(result.isGranted());
+    }
+
+    private static boolean isRoleOnly(Method method, MethodInvocation invocation) {
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(method, PreAuthorize.class);
+        if (preAuthorize == null && invocation.getThis() != null) {
+            Class<?> targetClass = AopUtils.getTargetClass(invocation.getThis());
+            Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(specificMethod, PreAuthorize.class);
+            if (preAuthorize == null) {
+                preAuthorize = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+            }
+        }
+        return preAuthorize != null && ROLE_ONLY_EXPRESSION.matcher(preAuthorize.value()).matches();
+    }
+
+    private record DecisionKey(Method method,
+                               Class<?> authenticationType,
+                               boolean authenticated,
+                               Set<String> authorities) {
+    }
+
+}
@@ -0,0 +1,120 @@
+package bg.sofia.uni.fmi.webjava.backend.security.config;
+
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtKeyring;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+// Without a keystore tokens are signed with jwt.secret as before. With one, every alias is a key id: key entries
+// can sign and verify, certificate-only entries verify tokens of retired keys. Rotating means adding a new key,
+// pointing jwt.keystore.active-key at it and dropping old aliases once their tokens have expired. Tokens signed
+// with jwt.secret before the keystore was set up are only accepted while jwt.accept-legacy-hmac is on.
+@Slf4j
+@Configuration
+public class JwtKeyringConfiguration {
+
+    private static final String KEYSTORE_TYPE = "PKCS12";
+    private static final String NO_SIGNING_KEY_MESSAGE = "Either jwt.secret or jwt.keystore.location must be set!";
+    private static final String MISSING_ACTIVE_KEY_MESSAGE = "Key %s was not found in the JWT keystore!";
+    private static final String LEGACY_HMAC_WITHOUT_SECRET_MESSAGE =
+        "jwt.accept-legacy-hmac is on but jwt.secret is not set!";
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${jwt.keystore.location}")
+    private String keystoreLocation;
+
+    @Value("${jwt.keystore.password}")
+    private String keystorePassword;
+
+    @Value("${jwt.keystore.active-key}")
+    private String activeKeyId;
+
+    @Value("${jwt.accept-legacy-hmac}")
+    private boolean acceptLegacyHmac;
+
+    @Value("${jwt.legacy-hmac-until}")
+    private String legacyHmacUntil;
+
+    @Value("${jwt.expiration-ms}")
+    private long jwtExpirationMs;
+
+    @Value("${jwt.refresh-expiration-ms}")
+    private long refreshExpirationMs;
+
+    @Bean
+    public JwtKeyring jwtKeyring() throws GeneralSecurityException, IOException {
+        SecretKey secretKey = jwtSecret.isBlank() ? null : Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        if (keystoreLocation.isBlank()) {
+            if (secretKey == null) {
+                throw new IllegalStateException(NO_SIGNING_KEY_MESSAGE);
+            }
+            return JwtKeyring.ofSecret(secretKey);
+        }
+
+        char[] password = keystorePassword.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+        try (InputStream inputStream = Files.newInputStream(Path.of(keystoreLocation))) {
+            keyStore.load(inputStream, password);
+        }
+
+        Map<String, PublicKey> verificationKeys = new HashMap<>();
+        for (String alias : Collections.list(keyStore.aliases())) {
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (certificate != null) {
+                verificationKeys.put(alias, certificate.getPublicKey());
+            }
+        }
+        Key activeKey = keyStore.getKey(activeKeyId, password);
+        if (!(activeKey instanceof PrivateKey privateKey) || !verificationKeys.containsKey(activeKeyId)) {
+            throw new IllegalStateException(format(MISSING_ACTIVE_KEY_MESSAGE, activeKeyId));
+        }
+        if (!acceptLegacyHmac) {
+            return new JwtKeyring(activeKeyId, privateKey, verificationKeys);
+        }
+        if (secretKey == null) {
+            throw new IllegalStateException(LEGACY_HMAC_WITHOUT_SECRET_MESSAGE);
+        }
+        Instant issuedBefore = legacyHmacUntil.isBlank() ? null : Instant.parse(legacyHmacUntil);
+        Duration maxAge = Duration.ofMillis(Math.max(jwtExpirationMs, refreshExpirationMs));
+        warnAboutLegacyHmac(issuedBefore, maxAge);
+        return new JwtKeyring(activeKeyId, privateKey, verificationKeys, secretKey, issuedBefore, maxAge);
+    }
+
+    private static void warnAboutLegacyHmac(Instant issuedBefore, Duration maxAge) {
+        if (issuedBefore == null) {
+            log.warn("jwt.accept-legacy-hmac is on without jwt.legacy-hmac-until, tokens signed with jwt.secret "
+                + "are accepted whenever they were issued. Set the switch-over time or turn the flag off");
+        } else if (issuedBefore.plus(maxAge).isBefore(Instant.now())) {
+            log.warn("Every token signed with jwt.secret before {} has expired, turn jwt.accept-legacy-hmac off",
+                issuedBefore);
+        } else {
+            log.warn("Tokens signed with jwt.secret before {} are accepted until {}, turn jwt.accept-legacy-hmac "
+                + "off after that", issuedBefore, issuedBefore.plus(maxAge));
+        }
+    }
+
+}
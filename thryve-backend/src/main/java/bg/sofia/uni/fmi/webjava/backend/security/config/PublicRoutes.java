@@ -0,0 +1,29 @@
+package bg.sofia.uni.fmi.webjava.backend.security.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+// Routes anyone may call. Built once and shared by the security rules and the JWT filter, which skips these
+// routes entirely; everything else needs an authenticated user.
+public final class PublicRoutes {
+
+    public static final RequestMatcher MATCHER = new OrRequestMatcher(
+        antMatcher(HttpMethod.POST, "/api/auth/login"),
+        antMatcher(HttpMethod.POST, "/api/auth/refresh-token"),
+        antMatcher(HttpMethod.POST, "/api/users"),
+        antMatcher(HttpMethod.POST, "/api/users/"),
+        antMatcher(HttpMethod.GET, "/"),
+        antMatcher("/swagger-ui/**"),
+        antMatcher("/swagger-ui.html"),
+        antMatcher("/v3/api-docs/**"),
+        antMatcher(HttpMethod.GET, "/actuator/health"),
+        antMatcher(HttpMethod.GET, "/.well-known/jwks.json")
+    );
+
+    private PublicRoutes() {
+    }
+
+}
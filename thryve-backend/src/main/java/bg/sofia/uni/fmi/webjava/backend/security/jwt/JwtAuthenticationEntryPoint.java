@@ -0,0 +1,39 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import bg.sofia.uni.fmi.webjava.backend.model.dto.MessageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.AuthenticationEntryPoint;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
+
+    public static final String AUTHENTICATION_REQUIRED_MESSAGE = "Authentication is required!";
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void commence(HttpServletRequest request,
+                         HttpServletResponse response,
+                         AuthenticationException authException) throws IOException {
+        // the filter rejects tokens with its own message, anything else is a request without credentials
+        String message = authException instanceof BadCredentialsException
+            ? authException.getMessage()
+            : AUTHENTICATION_REQUIRED_MESSAGE;
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new MessageResponse(message));
+    }
+
+}
@@ -1,14 +1,21 @@
 package bg.sofia.uni.fmi.webjava.backend.security.jwt;
 
+import bg.sofia.uni.fmi.webjava.backend.security.config.PublicRoutes;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,40 +26,110 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    static final String MALFORMED_TOKEN_MESSAGE = "Malformed bearer token!";
+    static final String INVALID_TOKEN_MESSAGE = "Invalid or expired token!";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final JwtAuthenticationEntryPoint authenticationEntryPoint;
+
+    // builds the principal from the verified claims instead of loading the user on every request
+    @Value("${jwt.stateless}")
+    private boolean stateless;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return PublicRoutes.MATCHER.matches(request);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        String authHeader = request.getHeader("Authorization");
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String jwt = authHeader.substring(7);
-        String username = jwtService.extractUsernameFromToken(jwt);
+        // rejected before any parsing or signature work
+        if (!authHeader.startsWith(BEARER_PREFIX) || !hasCompactJwsShape(authHeader, BEARER_PREFIX.length())) {
+            reject(request, response, MALFORMED_TOKEN_MESSAGE);
+            return;
+        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // verified once here; the claims carry everything the rest of the request needs
+        Claims claims = jwtService.extractClaims(authHeader.substring(BEARER_PREFIX.length()));
+        if (claims == null || claims.getSubject() == null
+            || jwtService.isRefreshToken(claims) || tokenRevocationService.isRevoked(claims)) {
+            reject(request, response, INVALID_TOKEN_MESSAGE);
+            return;
+        }
 
-            if (jwtService.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                    );
+        UserDetails userDetails = stateless ? userFromClaims(claims) : loadUser(claims.getSubject());
+        if (userDetails == null || !jwtService.validateClaims(claims, userDetails)) {
+            reject(request, response, INVALID_TOKEN_MESSAGE);
+            return;
+        }
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        UsernamePasswordAuthenticationToken authToken =
+            new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+            );
 
-            filterChain.doFilter(request, response);
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+
+        filterChain.doFilter(request, response);
+    }
+
+    private UserDetails userFromClaims(Claims claims) {
+        return new User(claims.getSubject(), "", jwtService.extractAuthorities(claims));
+    }
+
+    private UserDetails loadUser(String username) {
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String message)
+        throws IOException, ServletException {
+        SecurityContextHolder.clearContext();
+        authenticationEntryPoint.commence(request, response, new BadCredentialsException(message));
+    }
+
+    // header.payload.signature, each part non-empty base64url
+    static boolean hasCompactJwsShape(String value, int offset) {
+        int length = value.length();
+        if (length - offset > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+        int dots = 0;
+        int partLength = 0;
+        for (int i = offset; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (partLength == 0 || ++dots > 2) {
+                    return false;
+                }
+                partLength = 0;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_') {
+                partLength++;
+            } else {
+                return false;
+            }
         }
+        return dots == 2 && partLength > 0;
     }
 
 }
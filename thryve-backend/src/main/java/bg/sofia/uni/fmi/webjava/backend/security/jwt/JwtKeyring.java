@@ -0,0 +1,112 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+// Keys for signing and verifying tokens. The active key signs and puts its id in the kid header; it and the
+// previous keys verify, picked by kid from a map. Tokens without a kid were signed with the shared HMAC secret.
+// After switching to asymmetric keys they are only accepted when the legacy secret is passed in, and then only
+// if they were issued before the switch and are younger than the longest token lifetime.
+public class JwtKeyring extends LocatorAdapter<Key> {
+
+    private static final String UNSUPPORTED_KEY_MESSAGE = "Unsupported JWT signing key type %s!";
+    private static final String SIGNATURE_USE = "sig";
+
+    private final String activeKeyId;
+    private final PrivateKey activeKey;
+    private final SignatureAlgorithm activeAlgorithm;
+    private final SecretKey secretKey;
+    private final Instant legacyIssuedBefore;
+    private final Duration legacyMaxAge;
+    private final Map<String, PublicKey> verificationKeys;
+    private final Map<String, Object> jwks;
+
+    public JwtKeyring(String activeKeyId, PrivateKey activeKey, Map<String, PublicKey> verificationKeys) {
+        this(activeKeyId, activeKey, verificationKeys, null, null, null);
+    }
+
+    public JwtKeyring(String activeKeyId, PrivateKey activeKey, Map<String, PublicKey> verificationKeys,
+                      SecretKey secretKey, Instant legacyIssuedBefore, Duration legacyMaxAge) {
+        this.activeKeyId = activeKeyId;
+        this.activeKey = activeKey;
+        this.activeAlgorithm = activeKey == null ? null : algorithmFor(activeKey);
+        this.secretKey = secretKey;
+        this.legacyIssuedBefore = legacyIssuedBefore;
+        this.legacyMaxAge = legacyMaxAge;
+        this.verificationKeys = Map.copyOf(verificationKeys);
+        this.jwks = Map.of("keys", this.verificationKeys.entrySet().stream()
+            .map(entry -> toJwk(entry.getKey(), entry.getValue()))
+            .toList());
+    }
+
+    public static JwtKeyring ofSecret(SecretKey secretKey) {
+        return new JwtKeyring(null, null, Map.of(), secretKey, null, null);
+    }
+
+    public JwtBuilder sign(JwtBuilder builder) {
+        if (activeKey == null) {
+            return builder.signWith(secretKey);
+        }
+        return builder.header().keyId(activeKeyId).and().signWith(activeKey, activeAlgorithm);
+    }
+
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    // the signature alone can't tell a legacy token from one forged with a leaked secret after the switch
+    public boolean isTrusted(JwsHeader header, Claims claims) {
+        if (header.getKeyId() != null || activeKey == null) {
+            return true;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null) {
+            return false;
+        }
+        Instant issued = issuedAt.toInstant();
+        return (legacyIssuedBefore == null || issued.isBefore(legacyIssuedBefore))
+            && issued.isAfter(Instant.now().minus(legacyMaxAge));
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+        // only kid-less tokens may use the secret, so a public key can never be fed to HMAC
+        return keyId == null ? secretKey : verificationKeys.get(keyId);
+    }
+
+    private static Map<String, Object> toJwk(String keyId, PublicKey publicKey) {
+        return new LinkedHashMap<>(Jwks.builder()
+            .key(publicKey)
+            .id(keyId)
+            .algorithm(algorithmFor(publicKey).getId())
+            .publicKeyUse(SIGNATURE_USE)
+            .build());
+    }
+
+    static SignatureAlgorithm algorithmFor(Key key) {
+        return switch (key.getAlgorithm()) {
+            case "RSA" -> Jwts.SIG.RS256;
+            case "EdDSA", "Ed25519" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException(format(UNSUPPORTED_KEY_MESSAGE, key.getAlgorithm()));
+        };
+    }
+
+}
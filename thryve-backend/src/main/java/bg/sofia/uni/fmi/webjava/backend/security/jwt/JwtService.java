@@ -1,30 +1,43 @@
 package bg.sofia.uni.fmi.webjava.backend.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.MalformedJwtException;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtKeyring keyring;
 
     @Value("${jwt.expiration-ms}")
     private long jwtExpirationMs;
@@ -32,16 +45,43 @@ public class JwtService {
     @Value("${jwt.refresh-expiration-ms}")
     private long refreshExpirationMs;
 
-    private SecretKey key;
+    @Value("${jwt.claims-cache-size}")
+    private long claimsCacheSize;
+
+    private JwtParser parser;
+
+    // verified claims keyed by the token's SHA-256 digest, each entry living until its token expires
+    private Cache<String, Claims> verifiedClaims;
 
     @PostConstruct
     public void init() {
-        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parser()
+            .keyLocator(keyring)
+            .build();
+        this.verifiedClaims = Caffeine.newBuilder()
+            .maximumSize(claimsCacheSize)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), claims.getExpiration().toInstant()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
     }
 
-    public TokenPair generateTokenPair(Authentication authentication) {
+    public TokenPair generateTokenPair(Authentication authentication, RefreshTokenGrant grant) {
         String accessToken = generateAccessToken(authentication);
-        String refreshToken = generateRefreshToken(authentication);
+        String refreshToken = generateRefreshToken(authentication, grant);
         return new TokenPair(accessToken, refreshToken);
     }
 
@@ -54,9 +94,11 @@ public class JwtService {
         return generateToken(authentication, jwtExpirationMs, claims);
     }
 
-    public String generateRefreshToken(Authentication authentication) {
+    public String generateRefreshToken(Authentication authentication, RefreshTokenGrant grant) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("tokenType", "refresh");
+        claims.put("familyId", grant.familyId().toString());
+        claims.put(Claims.ID, grant.tokenId().toString());
         return generateToken(authentication, refreshExpirationMs, claims);
     }
 
@@ -64,12 +106,11 @@ public class JwtService {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
         Date now = new Date();
         Date expiration = new Date(now.getTime() + expirationMs);
-        return Jwts.builder()
+        return keyring.sign(Jwts.builder()
             .subject(userPrincipal.getUsername())
             .claims(claims)
             .issuedAt(now)
-            .expiration(expiration)
-            .signWith(key)
+            .expiration(expiration))
             .compact();
     }
 
@@ -82,29 +123,81 @@ public class JwtService {
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        String username = extractUsernameFromToken(token);
-        return username != null && username.equals(userDetails.getUsername());
+        return validateClaims(extractClaims(token), userDetails);
+    }
+
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return claims != null && userDetails.getUsername().equals(claims.getSubject());
     }
 
     public boolean isRefreshToken(String token) {
-        Claims claims = extractClaims(token);
+        return isRefreshToken(extractClaims(token));
+    }
+
+    public boolean isRefreshToken(Claims claims) {
         if (claims == null) {
             return false;
         }
         return "refresh".equals(claims.get("tokenType", String.class));
     }
 
-    private Claims extractClaims(String token) {
-        Claims claims = null;
+    public RefreshTokenGrant extractRefreshTokenGrant(Claims claims) {
+        String familyId = claims.get("familyId", String.class);
+        if (familyId == null || claims.getId() == null) {
+            return null;
+        }
+        try {
+            return new RefreshTokenGrant(UUID.fromString(familyId), UUID.fromString(claims.getId()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+            .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+            .toList();
+    }
+
+    public Claims extractClaims(String token) {
+        String digest = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(digest);
+        if (claims != null && claims.getExpiration().after(new Date())) {
+            return claims;
+        }
+        try {
+            Jws<Claims> jws = parser.parseSignedClaims(token);
+            if (!keyring.isTrusted(jws.getHeader(), jws.getPayload())) {
+                log.warn("Rejected a token signed with the legacy JWT secret");
+                return null;
+            }
+            claims = jws.getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedClaims.put(digest, claims);
+            }
+            return claims;
+        } catch (ExpiredJwtException e) {
+            log.debug("Rejected an expired token: {}", e.getMessage());
+            return null;
+        } catch (MalformedJwtException | IllegalArgumentException e) {
+            log.debug("Rejected a malformed token: {}", e.getMessage());
+            return null;
+        } catch (JwtException e) {
+            log.warn("Rejected a token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String digest(String token) {
         try {
-            claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Failed to extract claims from token: {}", e.getMessage());
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        return claims;
     }
 }
@@ -0,0 +1,6 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import java.util.UUID;
+
+public record RefreshTokenGrant(UUID familyId, UUID tokenId) {
+}
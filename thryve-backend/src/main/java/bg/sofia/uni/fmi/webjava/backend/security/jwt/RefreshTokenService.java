@@ -0,0 +1,125 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.RefreshTokenFamily;
+import bg.sofia.uni.fmi.webjava.backend.repository.RefreshTokenFamilyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Refresh tokens rotate on every use. Revoked families are also kept in memory, so replayed and logged out
+// tokens are turned away without touching the database. Revocation is final, which keeps the index safe to
+// share between nodes that only sync it periodically; a live token is always confirmed by the rotate query.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    // revocations committed while the previous sync was running are picked up by the next one
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(10);
+
+    private final RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+
+    @Value("${jwt.refresh-expiration-ms}")
+    private long refreshExpirationMs;
+
+    @Value("${jwt.refresh-tokens.reuse-grace-ms}")
+    private long reuseGraceMs;
+
+    @Value("${jwt.refresh-tokens.revoked-index-size}")
+    private long revokedIndexSize;
+
+    private Cache<UUID, Boolean> revokedFamilies;
+    private volatile LocalDateTime lastSync;
+
+    @PostConstruct
+    public void init() {
+        revokedFamilies = Caffeine.newBuilder()
+            .maximumSize(revokedIndexSize)
+            .expireAfterWrite(Duration.ofMillis(refreshExpirationMs))
+            .build();
+        lastSync = LocalDateTime.now().minusNanos(refreshExpirationMs * 1_000_000);
+    }
+
+    @Transactional
+    public RefreshTokenGrant start(String subject) {
+        UUID tokenId = UUID.randomUUID();
+        RefreshTokenFamily family = refreshTokenFamilyRepository.save(
+            new RefreshTokenFamily(subject, tokenId, nextExpiration(), false, null, null));
+        return new RefreshTokenGrant(family.getId(), tokenId);
+    }
+
+    // an empty result means the token must be rejected; a stale token also revokes its family
+    @Transactional
+    public Optional<RefreshTokenGrant> rotate(RefreshTokenGrant presented) {
+        if (revokedFamilies.getIfPresent(presented.familyId()) != null) {
+            return Optional.empty();
+        }
+        UUID nextTokenId = UUID.randomUUID();
+        int rotated = refreshTokenFamilyRepository.rotate(
+            presented.familyId(), presented.tokenId(), nextTokenId, nextExpiration());
+        if (rotated == 1) {
+            return Optional.of(new RefreshTokenGrant(presented.familyId(), nextTokenId));
+        }
+        return refreshTokenFamilyRepository.findById(presented.familyId())
+            .flatMap(family -> rejectOrReplay(family, presented));
+    }
+
+    // a refresh that lost the race against another tab or its own retry gets the token the winner received
+    private Optional<RefreshTokenGrant> rejectOrReplay(RefreshTokenFamily family, RefreshTokenGrant presented) {
+        LocalDateTime now = LocalDateTime.now();
+        if (family.isRevoked()) {
+            revokedFamilies.put(family.getId(), true);
+            return Optional.empty();
+        }
+        if (!family.getExpiresAt().isAfter(now)) {
+            log.debug("Refresh token family {} has expired", family.getId());
+            return Optional.empty();
+        }
+        if (presented.tokenId().equals(family.getPreviousTokenId()) && family.getRotatedAt() != null
+            && family.getRotatedAt().isAfter(now.minusNanos(reuseGraceMs * 1_000_000))) {
+            return Optional.of(new RefreshTokenGrant(family.getId(), family.getCurrentTokenId()));
+        }
+        if (refreshTokenFamilyRepository.revoke(family.getId()) > 0) {
+            log.warn("Refresh token reuse detected, revoked token family {}", family.getId());
+        }
+        revokedFamilies.put(family.getId(), true);
+        return Optional.empty();
+    }
+
+    @Transactional
+    public void revokeAll(String subject) {
+        List<UUID> familyIds = refreshTokenFamilyRepository.findActiveIdsBySubject(subject);
+        refreshTokenFamilyRepository.revokeAllBySubject(subject);
+        familyIds.forEach(familyId -> revokedFamilies.put(familyId, true));
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${jwt.refresh-tokens.sync-interval-ms}")
+    public void syncRevocations() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> revoked = refreshTokenFamilyRepository.findIdsRevokedSince(lastSync);
+        revoked.forEach(familyId -> revokedFamilies.put(familyId, true));
+        lastSync = now.minus(SYNC_OVERLAP);
+        int expired = refreshTokenFamilyRepository.deleteAllExpiredBefore(now);
+        if (expired > 0) {
+            log.info("Dropped {} expired refresh token families", expired);
+        }
+    }
+
+    private LocalDateTime nextExpiration() {
+        return LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000);
+    }
+
+}
@@ -0,0 +1,93 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.TokenRevocation;
+import bg.sofia.uni.fmi.webjava.backend.repository.TokenRevocationRepository;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Access tokens stay valid until they expire, so a deleted user, a changed email or a revoke of all sessions
+// needs a deny-list. It matters most in stateless mode, where no user lookup happens per request. Revocations
+// older than the access token lifetime can no longer match a live token and are dropped.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${jwt.expiration-ms}")
+    private long jwtExpirationMs;
+
+    private final Map<String, Instant> revokedSubjects = new ConcurrentHashMap<>();
+
+    @Transactional
+    public void revokeSubject(String subject) {
+        LocalDateTime now = LocalDateTime.now();
+        tokenRevocationRepository.save(new TokenRevocation(subject, now));
+        // visible on this node once committed, other nodes pick it up on their next refresh
+        afterCommit(() -> revoke(subject, toRevocationSecond(now)));
+    }
+
+    // iat only has whole seconds, so tokens issued in the second of the revocation are kept: a token issued
+    // right after a revocation, e.g. for a changed email, must not be denied with the old ones
+    public boolean isRevoked(Claims claims) {
+        Instant revokedAt = revokedSubjects.get(claims.getSubject());
+        if (revokedAt == null) {
+            return false;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.toInstant().isBefore(revokedAt);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${jwt.revocations.refresh-interval-ms}")
+    public void refreshRevocations() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(jwtExpirationMs * 1_000_000);
+        int expired = tokenRevocationRepository.deleteAllRevokedBefore(cutoff);
+        // merged rather than replaced, so a revocation committed on this node while the snapshot was read survives
+        tokenRevocationRepository.findAllByRevokedAtAfter(cutoff)
+            .forEach(revocation -> revoke(revocation.getSubject(), toRevocationSecond(revocation.getRevokedAt())));
+        Instant oldest = toRevocationSecond(cutoff);
+        revokedSubjects.values().removeIf(revokedAt -> revokedAt.isBefore(oldest));
+        if (expired > 0) {
+            log.info("Dropped {} expired token revocations", expired);
+        }
+    }
+
+    private void revoke(String subject, Instant revokedAt) {
+        revokedSubjects.merge(subject, revokedAt, (current, revoked) -> revoked.isAfter(current) ? revoked : current);
+    }
+
+    private static Instant toRevocationSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+}
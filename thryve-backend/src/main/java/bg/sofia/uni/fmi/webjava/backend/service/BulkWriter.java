@@ -0,0 +1,46 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Persists many new entities without growing the persistence context with them. Every chunk of batch-size entities
+// is flushed as JDBC batches and then detached. Only the written entities are detached, so whatever else the caller
+// has loaded stays managed.
+@Service
+@RequiredArgsConstructor
+public class BulkWriter {
+
+    private final EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Transactional
+    public <T> void persistAll(Collection<T> entities) {
+        List<T> chunk = new ArrayList<>(Math.min(batchSize, entities.size()));
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            chunk.add(entity);
+            if (chunk.size() == batchSize) {
+                flushAndDetach(chunk);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flushAndDetach(chunk);
+        }
+    }
+
+    private void flushAndDetach(List<?> chunk) {
+        entityManager.flush();
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+
+}
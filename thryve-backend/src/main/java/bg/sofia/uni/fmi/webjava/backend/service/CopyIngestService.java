@@ -0,0 +1,158 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+// Streams rows straight into a table with COPY ... FROM STDIN in CSV format. Rows are pulled from the iterator while
+// the copy runs and are never turned into entities, so neither Hibernate nor the whole input sits in memory. The copy
+// uses the connection of the surrounding transaction and bypasses the persistence context and the second-level cache.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CopyIngestService {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final String STAGING_SUFFIX = "_staging";
+
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final String INVALID_IDENTIFIER_MESSAGE = "Invalid table or column name %s!";
+    private static final String COPY_SQL = "copy %s (%s) from stdin with (format csv)";
+    private static final String CREATE_STAGING_TABLE_SQL =
+        "create temporary table %s (like %s including defaults) on commit drop";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+
+    // pending entity writes are flushed first, so copied rows can reference rows inserted earlier in the transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> long copy(String table, List<String> columns, Iterator<T> rows, Function<T, List<?>> toValues) {
+        validateIdentifier(table);
+        columns.forEach(CopyIngestService::validateIdentifier);
+        String sql = format(COPY_SQL, table, String.join(", ", columns));
+        entityManager.flush();
+
+        long start = System.nanoTime();
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+                while (rows.hasNext()) {
+                    appendRow(buffer, toValues.apply(rows.next()));
+                    if (buffer.length() >= BUFFER_SIZE) {
+                        write(copyIn, buffer);
+                    }
+                }
+                write(copyIn, buffer);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+        long rowCount = copied == null ? 0 : copied;
+        record(table, rowCount, System.nanoTime() - start);
+        return rowCount;
+    }
+
+    // a temporary copy of the table without its constraints and indexes, dropped when the transaction ends, for
+    // inputs that have to be filtered or deduplicated before they reach the real table
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String createStagingTable(String table) {
+        validateIdentifier(table);
+        String stagingTable = table + STAGING_SUFFIX;
+        jdbcTemplate.execute(format(CREATE_STAGING_TABLE_SQL, stagingTable, table));
+        return stagingTable;
+    }
+
+    static void appendRow(StringBuilder buffer, List<?> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            appendValue(buffer, values.get(i));
+        }
+        buffer.append('\n');
+    }
+
+    // an unquoted empty field is NULL, so text is always quoted to keep empty strings apart from it
+    private static void appendValue(StringBuilder buffer, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Enum<?> constant) {
+            buffer.append(constant.name());
+        } else if (value instanceof CharSequence text) {
+            buffer.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private void record(String table, long rowCount, long elapsedNanos) {
+        Counter.builder("bulk.ingest.rows")
+            .tag("table", table)
+            .register(meterRegistry)
+            .increment(rowCount);
+        Timer.builder("bulk.ingest.duration")
+            .tag("table", table)
+            .register(meterRegistry)
+            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (rowCount > 0 && elapsedNanos > 0) {
+            double rowsPerSecond = rowCount * 1_000_000_000d / elapsedNanos;
+            DistributionSummary.builder("bulk.ingest.throughput")
+                .baseUnit("rows/s")
+                .tag("table", table)
+                .register(meterRegistry)
+                .record(rowsPerSecond);
+            log.debug("Copied {} rows into {} at {} rows/s", rowCount, table, Math.round(rowsPerSecond));
+        }
+    }
+
+    private static void validateIdentifier(String identifier) {
+        if (!IDENTIFIER_PATTERN.matcher(identifier).matches()) {
+            throw new IllegalArgumentException(format(INVALID_IDENTIFIER_MESSAGE, identifier));
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
+import bg.sofia.uni.fmi.webjava.backend.mapper.AssignmentDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.mapper.CourseDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.mapper.SectionDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseOutlineDto;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import bg.sofia.uni.fmi.webjava.backend.repository.AssignmentRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.CourseRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.SectionRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+import static bg.sofia.uni.fmi.webjava.backend.service.CourseService.COURSE_NOT_FOUND_ERROR_MESSAGE;
+import static java.lang.String.format;
+
+// Everything the course page shows in three queries: the course, its sections joined with their resources,
+// and its assignments. The version query is cheap enough to answer conditional requests without loading any of it.
+@Service
+@RequiredArgsConstructor
+public class CourseOutlineService {
+
+    private final CourseRepository courseRepository;
+    private final SectionRepository sectionRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final CourseDtoMapper courseDtoMapper;
+    private final SectionDtoMapper sectionDtoMapper;
+    private final AssignmentDtoMapper assignmentDtoMapper;
+
+    public String getCourseOutlineETag(UUID courseId) {
+        return courseRepository.findOutlineVersionById(courseId)
+            .orElseThrow(() -> new EntityNotFoundException(format(COURSE_NOT_FOUND_ERROR_MESSAGE, courseId)))
+            .toETag();
+    }
+
+    @Transactional
+    public CourseOutlineDto getCourseOutline(UUID courseId) {
+        Course course = courseRepository.findById(courseId)
+            .orElseThrow(() -> new EntityNotFoundException(format(COURSE_NOT_FOUND_ERROR_MESSAGE, courseId)));
+        CourseOutlineDto outline = courseDtoMapper.mapCourseToOutlineDto(course);
+        outline.setSections(sectionRepository.findAllWithResourcesByCourseIdOrderByOrderNumber(courseId).stream()
+            .map(sectionDtoMapper::mapToResponseDto)
+            .toList());
+        outline.setAssignments(assignmentRepository.findAllByCourseIdOrderByCreatedAt(courseId).stream()
+            .map(assignmentDtoMapper::mapToResponseDto)
+            .toList());
+        return outline;
+    }
+
+}
@@ -1,5 +1,6 @@
 package bg.sofia.uni.fmi.webjava.backend.service;
 
+import bg.sofia.uni.fmi.webjava.backend.config.CoalescedRead;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
 import bg.sofia.uni.fmi.webjava.backend.mapper.CourseDtoMapper;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseCreateDto;
@@ -30,7 +31,7 @@ public class CourseService {
     private final CourseRepository courseRepository;
     private final CourseDtoMapper courseDtoMapper;
     private final UserRepository userRepository;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutboxService;
 
     @Transactional
     public Page<CourseResponseDto> getAllCourses(Pageable pageable) {
@@ -38,6 +39,7 @@ public class CourseService {
             .map(courseDtoMapper::mapCourseToResponseDto);
     }
 
+    @CoalescedRead
     @Transactional
     public CourseResponseDto getCourseById(UUID id) {
         return courseDtoMapper.mapCourseToResponseDto(getCourseEntityById(id));
@@ -56,7 +58,7 @@ public class CourseService {
                 format(USER_WITH_EMAIL_NOT_FOUND_ERROR_MESSAGE, creatorEmail))
         );
         Course course = courseRepository.save(courseDtoMapper.mapDtoToCourse(courseCreateDto));
-        notificationService.notifyAllUsersCourseCreated(course, sender);
+        notificationOutboxService.enqueueCourseCreated(course, sender);
         return courseDtoMapper.mapCourseToResponseDto(course);
     }
 
@@ -64,7 +66,7 @@ public class CourseService {
     public CourseResponseDto updateCourseById(UUID id, CourseUpdateDto courseUpdateDto, String updaterEmail) {
         Course course = getCourseEntityById(id);
         userRepository.findByEmail(updaterEmail).ifPresent(sender ->
-            notificationService.notifyEnrolledUsersCourseUpdated(course, sender, COURSE_UPDATED_MESSAGE));
+            notificationOutboxService.enqueueCourseUpdated(course, sender, COURSE_UPDATED_MESSAGE));
         courseDtoMapper.updateCourseFromDto(courseUpdateDto, course);
         return courseDtoMapper.mapCourseToResponseDto(courseRepository.save(course));
     }
@@ -3,11 +3,14 @@ package bg.sofia.uni.fmi.webjava.backend.service;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityAlreadyExistsException;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
 import bg.sofia.uni.fmi.webjava.backend.mapper.EnrollmentDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.ImportResultDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Enrollment;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.EnrollmentType;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.TimeOrderedIdGenerator;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
 import bg.sofia.uni.fmi.webjava.backend.repository.EnrollmentRepository;
 import jakarta.transaction.Transactional;
@@ -16,6 +19,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static java.lang.String.format;
@@ -26,11 +36,18 @@ public class EnrollmentService {
 
     public static final String ENROLLMENT_NOT_FOUND_ERROR_MESSAGE = "Enrollment with id %s was not found!";
     public static final String ENROLLMENT_ALREADY_EXISTS_ERROR_MESSAGE = "Enrollment already exists!";
+    public static final String INVALID_ENROLLMENT_RECORD_MESSAGE =
+        "expected userId,courseId[,enrollmentType] but got '%s'";
+
+    private static final String ENROLLMENTS_TABLE = "enrollments";
+    private static final List<String> ENROLLMENT_COLUMNS =
+        List.of("id", "created_at", "updated_at", "type", "user_id", "course_id");
 
     private final EnrollmentRepository enrollmentRepository;
     private final EnrollmentDtoMapper enrollmentDtoMapper;
     private final CourseService courseService;
     private final UserService userService;
+    private final CopyIngestService copyIngestService;
 
     @Transactional
     public Page<EnrollmentResponseDto> getAllEnrollments(Pageable pageable) {
@@ -95,4 +112,32 @@ public class EnrollmentService {
         return enrollmentResponseDto;
     }
 
+    // the upload is a CSV with a header and userId,courseId[,enrollmentType] records, copied into a staging table
+    // first, so duplicates and unknown users or courses are skipped instead of failing the whole import
+    @Transactional
+    public ImportResultDto importEnrollments(InputStream csv) {
+        ImportRecordIterator<EnrollmentRecord> records = new ImportRecordIterator<>(
+            new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)), true,
+            EnrollmentService::parseEnrollmentRecord);
+        String stagingTable = copyIngestService.createStagingTable(ENROLLMENTS_TABLE);
+        LocalDateTime now = LocalDateTime.now();
+        copyIngestService.copy(stagingTable, ENROLLMENT_COLUMNS, records, record -> Arrays.asList(
+            TimeOrderedIdGenerator.nextId(), now, now, record.type(), record.userId(), record.courseId()));
+        return new ImportResultDto(records.getReceived(), enrollmentRepository.insertStaged());
+    }
+
+    private static EnrollmentRecord parseEnrollmentRecord(String line) {
+        String[] fields = line.split(",", -1);
+        if (fields.length < 2 || fields.length > 3) {
+            throw new IllegalArgumentException(format(INVALID_ENROLLMENT_RECORD_MESSAGE, line));
+        }
+        EnrollmentType type = fields.length == 3 && !fields[2].isBlank()
+            ? EnrollmentType.valueOf(fields[2].strip().toUpperCase())
+            : EnrollmentType.STUDENT;
+        return new EnrollmentRecord(UUID.fromString(fields[0].strip()), UUID.fromString(fields[1].strip()), type);
+    }
+
+    private record EnrollmentRecord(UUID userId, UUID courseId, EnrollmentType type) {
+    }
+
 }
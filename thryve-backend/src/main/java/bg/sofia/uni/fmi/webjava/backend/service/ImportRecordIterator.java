@@ -0,0 +1,87 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.InvalidImportException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+// Parses an uploaded import one line at a time, so the upload is never read into memory as a whole. Blank lines are
+// skipped; a line the parser rejects fails the whole import with its line number.
+public class ImportRecordIterator<T> implements Iterator<T> {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final String INVALID_RECORD_MESSAGE = "Invalid record on line %d: %s";
+
+    private final BufferedReader reader;
+    private final Function<String, T> parser;
+    private int lineNumber;
+    private long received;
+    private T next;
+
+    public ImportRecordIterator(BufferedReader reader, boolean header, Function<String, T> parser) {
+        this.reader = reader;
+        this.parser = parser;
+        if (header) {
+            readLine();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        String line;
+        do {
+            line = readLine();
+            if (line == null) {
+                return false;
+            }
+        } while (line.isBlank());
+        try {
+            next = parser.apply(line.strip());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImportException(format(INVALID_RECORD_MESSAGE, lineNumber, e.getMessage()));
+        }
+        received++;
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T record = next;
+        next = null;
+        return record;
+    }
+
+    // the line the record last returned by next() was read from
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    private String readLine() {
+        try {
+            String line = reader.readLine();
+            if (line != null) {
+                lineNumber++;
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,253 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationCounter;
+import bg.sofia.uni.fmi.webjava.backend.repository.EnrollmentRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationCounterRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.f4b6a3.ulid.Ulid;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationCounterService {
+
+    private final NotificationCounterRepository notificationCounterRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final long RECONCILE_LOCK_KEY = 0x7468727976650001L;
+    private static final UUID FIRST_USER_ID = new UUID(0, 0);
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    @Value("${thryve.notifications.counters.cache-size}")
+    private long cacheSize;
+
+    @Value("${thryve.notifications.counters.cache-ttl-ms}")
+    private long cacheTtlMs;
+
+    @Value("${thryve.notifications.counters.repair-batch-size}")
+    private int repairBatchSize;
+
+    private Cache<UUID, CachedCount> unreadCounts;
+    // broadcasts and course fan-outs already added to the cached counts, as one arrives both after commit and
+    // through the relay
+    private Cache<UUID, Boolean> appliedFanOuts;
+    private TransactionTemplate chunkTransactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        unreadCounts = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+            .build();
+        appliedFanOuts = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+            .build();
+        chunkTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional(readOnly = true)
+    public long getUnreadCount(UUID userId) {
+        return unreadCounts.get(userId, this::loadUnreadCount).count();
+    }
+
+    // loads every uncached count with one query per batch, e.g. for all users connected when a broadcast arrives
+    @Transactional(readOnly = true)
+    public void loadUnreadCounts(Collection<UUID> userIds) {
+        unreadCounts.getAll(userIds, this::loadUnreadCounts);
+    }
+
+    @Transactional
+    public void adjust(UUID userId, long delta) {
+        notificationCounterRepository.adjust(userId, delta);
+        afterCommit(() -> unreadCounts.invalidate(userId));
+    }
+
+    @Transactional
+    public void incrementAll(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        notificationCounterRepository.incrementAll(userIds);
+        afterCommit(() -> unreadCounts.invalidateAll(userIds));
+    }
+
+    // A course fan-out raises the counters page by page. Its cached counts are updated once after commit from the
+    // course id alone, so no page has to be kept until then.
+    @Transactional
+    public void courseFanOutPageCreated(UUID courseId, UUID firstNotificationId, Collection<UUID> userIds) {
+        notificationCounterRepository.incrementAll(userIds);
+        afterCommit(() -> applyCourseFanOut(courseId, firstNotificationId));
+    }
+
+    @Transactional
+    public void reset(UUID userId) {
+        notificationCounterRepository.reset(userId);
+        afterCommit(() -> unreadCounts.invalidate(userId));
+    }
+
+    // A broadcast raises the counter of every user who can see it, in the transaction that stores it. Cached counts
+    // read before the broadcast's id was generated can't include it and are raised in place, so the next reads
+    // don't all go to the database at once; the few read since then may already include it and are dropped.
+    // Course fan-outs are applied the same way.
+    @Transactional
+    public void broadcastCreated(UUID broadcastId, LocalDateTime sentAt) {
+        notificationCounterRepository.incrementRegisteredBy(sentAt);
+        afterCommit(() -> applyBroadcastCreated(broadcastId));
+    }
+
+    public void applyBroadcastCreated(UUID broadcastId) {
+        if (appliedFanOuts.asMap().putIfAbsent(broadcastId, Boolean.TRUE) == null) {
+            raiseCachedCounts(List.copyOf(unreadCounts.asMap().keySet()), broadcastId);
+        }
+    }
+
+    // only the cached counts of enrolled users are looked up, so the work is bounded by the cache size
+    public void applyCourseFanOut(UUID courseId, UUID firstNotificationId) {
+        if (appliedFanOuts.asMap().putIfAbsent(firstNotificationId, Boolean.TRUE) != null) {
+            return;
+        }
+        List<UUID> cached = List.copyOf(unreadCounts.asMap().keySet());
+        for (int from = 0; from < cached.size(); from += LOAD_BATCH_SIZE) {
+            List<UUID> batch = cached.subList(from, Math.min(from + LOAD_BATCH_SIZE, cached.size()));
+            raiseCachedCounts(enrollmentRepository.findEnrolledUserIds(courseId, batch), firstNotificationId);
+        }
+    }
+
+    @Transactional
+    public void broadcastsRemoved(Collection<UUID> broadcastIds) {
+        List<UUID> userIds = notificationCounterRepository.releaseUnreadBroadcasts(broadcastIds);
+        afterCommit(() -> unreadCounts.invalidateAll(userIds));
+    }
+
+    // counters changed on another node leave this node's cached values stale
+    public void evictCached(UUID userId) {
+        unreadCounts.invalidate(userId);
+    }
+
+    // Runs on one node at a time, holding a transaction-scoped advisory lock while the chunks commit on their own.
+    @Scheduled(
+        initialDelayString = "${thryve.notifications.counters.repair-initial-delay-ms}",
+        fixedDelayString = "${thryve.notifications.counters.repair-interval-ms}"
+    )
+    public void reconcileCounters() {
+        try {
+            transactionTemplate.execute(status -> {
+                if (!notificationCounterRepository.tryAdvisoryLock(RECONCILE_LOCK_KEY)) {
+                    log.debug("Unread notification counters are being reconciled on another node");
+                    return null;
+                }
+                long rebuilt = rebuildInChunks();
+                Integer removed = chunkTransactionTemplate.execute(
+                    chunk -> notificationCounterRepository.deleteOrphaned());
+                log.info("Reconciled {} unread notification counters, removed {} orphaned", rebuilt, removed);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile unread notification counters", e);
+        }
+    }
+
+    long rebuildInChunks() {
+        long rebuilt = 0;
+        UUID after = FIRST_USER_ID;
+        List<UUID> userIds;
+        do {
+            UUID from = after;
+            userIds = chunkTransactionTemplate.execute(status -> rebuildChunk(from));
+            if (userIds == null || userIds.isEmpty()) {
+                break;
+            }
+            rebuilt += userIds.size();
+            after = userIds.get(userIds.size() - 1);
+        } while (userIds.size() == repairBatchSize);
+        return rebuilt;
+    }
+
+    // The counters are locked before they are counted. The count then runs in a later statement with a fresh
+    // snapshot, so it includes every increment that committed while the chunk waited for the locks. Increments
+    // arriving after that wait for the commit and apply on top of the recount.
+    private List<UUID> rebuildChunk(UUID after) {
+        List<UUID> userIds = notificationCounterRepository.findUserIdsAfter(after, repairBatchSize);
+        if (userIds.isEmpty()) {
+            return userIds;
+        }
+        notificationCounterRepository.insertMissing(userIds);
+        notificationCounterRepository.lockAll(userIds);
+        notificationCounterRepository.recount(userIds);
+        afterCommit(() -> unreadCounts.invalidateAll(userIds));
+        return userIds;
+    }
+
+    // a user without a counter row has never had an unread notification
+    private void raiseCachedCounts(Collection<UUID> userIds, UUID notificationId) {
+        Instant generatedAt = Ulid.from(notificationId).getInstant();
+        userIds.forEach(userId -> unreadCounts.asMap().computeIfPresent(userId,
+            (id, cached) -> cached.loadedAt().isBefore(generatedAt) ? cached.plusOne() : null));
+    }
+
+    private Map<UUID, CachedCount> loadUnreadCounts(Set<? extends UUID> userIds) {
+        List<UUID> missing = List.copyOf(userIds);
+        Map<UUID, CachedCount> counts = new HashMap<>();
+        for (int from = 0; from < missing.size(); from += LOAD_BATCH_SIZE) {
+            List<UUID> batch = missing.subList(from, Math.min(from + LOAD_BATCH_SIZE, missing.size()));
+            notificationCounterRepository.findAllById(batch).forEach(counter ->
+                counts.put(counter.getUserId(), new CachedCount(counter.getUnreadCount(), Instant.now())));
+        }
+        missing.forEach(userId -> counts.putIfAbsent(userId, new CachedCount(0, Instant.now())));
+        return counts;
+    }
+
+    private CachedCount loadUnreadCount(UUID userId) {
+        long count = notificationCounterRepository.findById(userId)
+            .map(NotificationCounter::getUnreadCount)
+            .orElse(0L);
+        return new CachedCount(count, Instant.now());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record CachedCount(long count, Instant loadedAt) {
+
+        private CachedCount plusOne() {
+            return new CachedCount(count + 1, loadedAt);
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEvent;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    // rows are claimed with FOR UPDATE SKIP LOCKED, so every backend node can poll the same outbox
+
+    @Value("${thryve.notifications.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${thryve.notifications.outbox.workers}")
+    private int workers;
+
+    @Value("${thryve.notifications.outbox.virtual-threads}")
+    private boolean virtualThreads;
+
+    @Value("${thryve.notifications.outbox.retry-backoff-ms}")
+    private long retryBackoffMs;
+
+    @Value("${thryve.notifications.outbox.max-attempts}")
+    private int maxAttempts;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = virtualThreads
+            ? Executors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(workers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${thryve.notifications.outbox.poll-interval-ms}")
+    public void dispatchPendingEvents() {
+        List<Future<?>> running = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            running.add(executor.submit(this::drainOutbox));
+        }
+        for (Future<?> worker : running) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Notification outbox worker failed", e.getCause());
+            }
+        }
+    }
+
+    void drainOutbox() {
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize);
+    }
+
+    // every event is expanded in its own transaction, so a failing event neither rolls back nor delays the rest
+    int dispatchBatch() {
+        int dispatched = 0;
+        while (dispatched < batchSize && dispatchNext()) {
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    private boolean dispatchNext() {
+        AtomicReference<UUID> claimedId = new AtomicReference<>();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Optional<NotificationOutboxEvent> claimed = notificationOutboxRepository.claimNext(LocalDateTime.now());
+                claimed.ifPresent(event -> {
+                    claimedId.set(event.getId());
+                    expand(event);
+                    notificationOutboxRepository.delete(event);
+                });
+                return claimed.isPresent();
+            }));
+        } catch (RuntimeException e) {
+            if (claimedId.get() == null) {
+                log.error("Failed to claim a notification outbox event", e);
+                return false;
+            }
+            log.error("Failed to dispatch notification outbox event {}", claimedId.get(), e);
+            recordFailure(claimedId.get(), e);
+            return true;
+        }
+    }
+
+    // retried after the backoff until maxAttempts, then kept as dead-lettered with its last error for inspection
+    private void recordFailure(UUID eventId, RuntimeException failure) {
+        transactionTemplate.executeWithoutResult(status -> notificationOutboxRepository.findById(eventId)
+            .ifPresent(event -> {
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(abbreviate(failure.toString()));
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setDeadLettered(true);
+                    log.error("Notification outbox event {} was dead-lettered after {} attempts",
+                        eventId, event.getAttempts());
+                } else {
+                    event.setAvailableAt(LocalDateTime.now().plus(Duration.ofMillis(retryBackoffMs)));
+                }
+            }));
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private void expand(NotificationOutboxEvent event) {
+        switch (event.getType()) {
+            case COURSE_CREATED -> notificationService.notifyAllUsersCourseCreated(event.getCourse(), event.getSender());
+            case COURSE_UPDATED -> notificationService.notifyEnrolledUsersCourseUpdated(
+                event.getCourse(), event.getSender(), event.getMessage());
+        }
+    }
+
+}
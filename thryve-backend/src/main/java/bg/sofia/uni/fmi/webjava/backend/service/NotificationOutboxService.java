@@ -0,0 +1,62 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEvent;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEventType;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+
+    private static final int COURSE_LOCK_NAMESPACE = 0x74680001;
+
+    // Updates to a course within the window collapse into the first pending event, which is held back until the
+    // window ends. The window is not extended by later updates, so a long editing session can't starve it.
+    @Value("${thryve.notifications.coalescing.window-ms}")
+    private long coalescingWindowMs;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCourseCreated(Course course, User sender) {
+        enqueue(NotificationOutboxEventType.COURSE_CREATED, course, sender, null, LocalDateTime.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueCourseUpdated(Course course, User sender, String message) {
+        if (coalescingWindowMs > 0) {
+            // without the lock two first updates could both miss the pending event and insert one each
+            notificationOutboxRepository.lockCourse(COURSE_LOCK_NAMESPACE, course.getId());
+            if (notificationOutboxRepository.coalescePending(course.getId(), NotificationOutboxEventType.COURSE_UPDATED,
+                sender, message, LocalDateTime.now()) > 0) {
+                return;
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        enqueue(NotificationOutboxEventType.COURSE_UPDATED, course, sender, message,
+            now.plus(Duration.ofMillis(coalescingWindowMs)));
+    }
+
+    private void enqueue(
+        NotificationOutboxEventType type, Course course, User sender, String message, LocalDateTime availableAt
+    ) {
+        NotificationOutboxEvent event = new NotificationOutboxEvent();
+        event.setType(type);
+        event.setCourse(course);
+        event.setSender(sender);
+        event.setMessage(message);
+        event.setAvailableAt(availableAt);
+        notificationOutboxRepository.save(event);
+    }
+
+}
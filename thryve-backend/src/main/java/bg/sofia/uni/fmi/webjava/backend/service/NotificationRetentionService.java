@@ -0,0 +1,105 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationRepository.PurgedNotifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationRetentionService {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationCounterService notificationCounterService;
+    private final TransactionTemplate transactionTemplate;
+
+    // a value of 0 disables the corresponding policy
+
+    @Value("${thryve.notifications.retention.max-age-days}")
+    private int maxAgeDays;
+
+    @Value("${thryve.notifications.retention.max-per-user}")
+    private int maxPerUser;
+
+    @Value("${thryve.notifications.retention.batch-size}")
+    private int batchSize;
+
+    @Scheduled(
+        initialDelayString = "${thryve.notifications.retention.purge-initial-delay-ms}",
+        fixedDelayString = "${thryve.notifications.retention.purge-interval-ms}"
+    )
+    public void purgeNotifications() {
+        try {
+            long expired = 0;
+            if (maxAgeDays > 0) {
+                LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+                expired = purgeInChunks(() -> notificationRepository.purgeOlderThan(cutoff, batchSize))
+                    + purgeBroadcastsInChunks(cutoff);
+            }
+            long excess = 0;
+            if (maxPerUser > 0) {
+                excess = purgeInChunks(() -> notificationRepository.purgeExcessPerRecipient(maxPerUser, batchSize));
+            }
+            if (expired + excess > 0) {
+                log.info("Purged {} expired notifications and {} over the per-user limit", expired, excess);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to purge notifications: {}", e.getMessage());
+        }
+    }
+
+    // every chunk commits on its own, so row locks are only held for one small batch at a time
+    long purgeInChunks(Supplier<List<PurgedNotifications>> purgeChunk) {
+        long total = 0;
+        long purged;
+        do {
+            Long chunk = transactionTemplate.execute(status -> purgeChunk(purgeChunk.get()));
+            purged = chunk == null ? 0 : chunk;
+            total += purged;
+        } while (purged >= batchSize);
+        return total;
+    }
+
+    long purgeBroadcastsInChunks(LocalDateTime cutoff) {
+        long total = 0;
+        int purged;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> purgeBroadcastChunk(cutoff));
+            purged = chunk == null ? 0 : chunk;
+            total += purged;
+        } while (purged >= batchSize);
+        return total;
+    }
+
+    private long purgeChunk(List<PurgedNotifications> purged) {
+        long total = 0;
+        for (PurgedNotifications recipient : purged) {
+            total += recipient.getPurged();
+            if (recipient.getUnread() > 0) {
+                notificationCounterService.adjust(recipient.getRecipientId(), -recipient.getUnread());
+            }
+        }
+        return total;
+    }
+
+    private int purgeBroadcastChunk(LocalDateTime cutoff) {
+        List<UUID> broadcastIds = notificationRepository.lockBroadcastsOlderThan(cutoff, batchSize);
+        if (broadcastIds.isEmpty()) {
+            return 0;
+        }
+        notificationCounterService.broadcastsRemoved(broadcastIds);
+        notificationRepository.deleteAllByIdInBatch(broadcastIds);
+        return broadcastIds.size();
+    }
+
+}
@@ -1,26 +1,41 @@
 package bg.sofia.uni.fmi.webjava.backend.service;
 
+import bg.sofia.uni.fmi.webjava.backend.event.NotificationPush;
+import bg.sofia.uni.fmi.webjava.backend.event.NotificationsChangedEvent;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
+import bg.sofia.uni.fmi.webjava.backend.exception.InvalidPageRequestException;
 import bg.sofia.uni.fmi.webjava.backend.mapper.NotificationDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.CursorPage;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Enrollment;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Notification;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.TimeOrderedIdGenerator;
 import bg.sofia.uni.fmi.webjava.backend.repository.EnrollmentRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationReceiptRepository;
 import bg.sofia.uni.fmi.webjava.backend.repository.NotificationRepository;
-import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static java.lang.String.format;
 
@@ -29,42 +44,124 @@ import static java.lang.String.format;
 public class NotificationService {
 
     private static final String NOTIFICATION_NOT_FOUND_MESSAGE = "Notification with id %s for user with id %s was not found!";
+    private static final String UNSUPPORTED_SORT_KEY_MESSAGE = "Sorting by %s is not supported! Supported keys: %s";
+    private static final String INVALID_LIMIT_MESSAGE = "Limit must be between 1 and %d!";
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid cursor!";
+
+    // only keys backed by the (recipient_id, created_at desc, id) index
+    private static final Set<String> FEED_SORT_KEYS = Set.of("createdAt");
+    private static final int MAX_FEED_LIMIT = 100;
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final String NOTIFICATIONS_TABLE = "notifications";
+    private static final List<String> NOTIFICATION_COLUMNS = List.of(
+        "id", "created_at", "updated_at", "title", "message", "read", "recipient_id", "sender_id", "course_id");
+    private static final int FAN_OUT_PAGE_SIZE = 1000;
+    private static final UUID FAN_OUT_START = new UUID(0L, 0L);
+    // the first page starts from a position before every row, so it uses the same index seek as the rest
+    private static final FeedPosition NEWEST_FIRST_START =
+        new FeedPosition(LocalDateTime.of(9999, 12, 31, 0, 0), new UUID(0L, 0L));
+    private static final FeedPosition OLDEST_FIRST_START =
+        new FeedPosition(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0L, 0L));
 
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
+    private final NotificationReceiptRepository notificationReceiptRepository;
     private final UserService userService;
     private final EnrollmentRepository enrollmentRepository;
     private final NotificationDtoMapper notificationDtoMapper;
+    private final NotificationCounterService notificationCounterService;
+    private final BulkWriter bulkWriter;
+    private final CopyIngestService copyIngestService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${thryve.notifications.fan-out.copy-threshold}")
+    private long copyThreshold;
 
     @Transactional
     public Page<NotificationResponseDto> getNotificationsByRecipientEmail(String email, Pageable pageable) {
         UserResponseDto user = userService.getUserByEmail(email);
-        return notificationRepository.findByRecipientId(user.getId(), pageable).map(notificationDtoMapper::mapToResponseDto);
+        Page<Notification> notifications = notificationRepository.findByRecipientId(user.getId(), pageable);
+        return notifications.map(readStateMapper(user.getId(), notifications.getContent()));
+    }
+
+    @Transactional
+    public CursorPage<NotificationResponseDto> getNotificationFeedByRecipientEmail(
+        String email, String cursor, int limit, String sortBy, Sort.Direction direction
+    ) {
+        if (!FEED_SORT_KEYS.contains(sortBy)) {
+            throw new InvalidPageRequestException(format(UNSUPPORTED_SORT_KEY_MESSAGE, sortBy, FEED_SORT_KEYS));
+        }
+        if (limit < 1 || limit > MAX_FEED_LIMIT) {
+            throw new InvalidPageRequestException(format(INVALID_LIMIT_MESSAGE, MAX_FEED_LIMIT));
+        }
+        UserResponseDto user = userService.getUserByEmail(email);
+        boolean newestFirst = direction == Sort.Direction.DESC;
+        FeedPosition position = cursor != null
+            ? decodeCursor(cursor)
+            : newestFirst ? NEWEST_FIRST_START : OLDEST_FIRST_START;
+
+        // one extra row tells whether there is a next page without a count query
+        List<Notification> notifications = newestFirst
+            ? notificationRepository.findFeedNewestFirst(user.getId(), position.createdAt(), position.id(), Limit.of(limit + 1))
+            : notificationRepository.findFeedOldestFirst(user.getId(), position.createdAt(), position.id(), Limit.of(limit + 1));
+        boolean hasNext = notifications.size() > limit;
+        List<Notification> page = hasNext ? notifications.subList(0, limit) : notifications;
+
+        return new CursorPage<>(
+            page.stream().map(readStateMapper(user.getId(), page)).toList(),
+            hasNext ? encodeCursor(page.getLast()) : null
+        );
     }
 
     @Transactional
     public long getUnreadNotificationsCountByRecipientEmail(String email) {
         UserResponseDto user = userService.getUserByEmail(email);
-        return notificationRepository.countByRecipientIdAndReadFalse(user.getId());
+        return notificationCounterService.getUnreadCount(user.getId());
     }
 
     @Transactional
     public NotificationResponseDto markNotificationAsReadByRecipientEmail(UUID id, String email) {
         UserResponseDto user = userService.getUserByEmail(email);
         Notification notification = notificationRepository.findByIdAndRecipientId(id, user.getId())
-            .orElseThrow(() -> new EntityNotFoundException(
-                format(NOTIFICATION_NOT_FOUND_MESSAGE, id, user.getId())));
-        notification.setRead(true);
-        return notificationDtoMapper.mapToResponseDto(notificationRepository.save(notification));
+            .orElse(null);
+        if (notification == null) {
+            Notification broadcast = getBroadcastEntityById(id, user.getId());
+            if (notificationReceiptRepository.insertReceipt(id, user.getId(), false) == 1) {
+                notificationCounterService.adjust(user.getId(), -1);
+                publishUnreadCountChanged(user.getId());
+            }
+            NotificationResponseDto dto = notificationDtoMapper.mapToResponseDto(broadcast);
+            dto.setRead(true);
+            return dto;
+        }
+        if (notificationRepository.markReadByIdAndRecipientId(id, user.getId()) == 1) {
+            notificationCounterService.adjust(user.getId(), -1);
+            publishUnreadCountChanged(user.getId());
+        }
+        NotificationResponseDto dto = notificationDtoMapper.mapToResponseDto(notification);
+        dto.setRead(true);
+        return dto;
     }
 
     @Transactional
     public NotificationResponseDto deleteNotificationById(UUID id, String email) {
         UserResponseDto user = userService.getUserByEmail(email);
         Notification notification = notificationRepository.findByIdAndRecipientId(id, user.getId())
-            .orElseThrow(() -> new EntityNotFoundException(
-                format(NOTIFICATION_NOT_FOUND_MESSAGE, id, user.getId())));
-        notificationRepository.delete(notification);
+            .orElse(null);
+        if (notification == null) {
+            Notification broadcast = getBroadcastEntityById(id, user.getId());
+            if (notificationReceiptRepository.insertReceipt(id, user.getId(), true) == 1) {
+                notificationCounterService.adjust(user.getId(), -1);
+                publishUnreadCountChanged(user.getId());
+            } else {
+                notificationReceiptRepository.dismissReceipt(id, user.getId());
+            }
+            return notificationDtoMapper.mapToResponseDto(broadcast);
+        }
+        List<Boolean> deleted = notificationRepository.deleteByIdAndRecipientIdReturningRead(id, user.getId());
+        if (deleted.contains(false)) {
+            notificationCounterService.adjust(user.getId(), -1);
+            publishUnreadCountChanged(user.getId());
+        }
         return notificationDtoMapper.mapToResponseDto(notification);
     }
 
@@ -72,29 +169,61 @@ public class NotificationService {
     public void deleteNotificationsByRecipientEmail(String email) {
         UserResponseDto user = userService.getUserByEmail(email);
         notificationRepository.deleteByRecipientId(user.getId());
+        notificationReceiptRepository.dismissAllBroadcasts(user.getId());
+        notificationCounterService.reset(user.getId());
+        publishUnreadCountChanged(user.getId());
+    }
+
+    @Transactional
+    public int markAllNotificationsAsReadByRecipientEmail(String email) {
+        UserResponseDto user = userService.getUserByEmail(email);
+        int personal = notificationRepository.markAllReadByRecipientId(user.getId());
+        int broadcasts = notificationReceiptRepository.markAllBroadcastsRead(user.getId());
+        return applyBulkRead(user.getId(), personal, broadcasts);
+    }
+
+    @Transactional
+    public int markNotificationsAsReadByRecipientEmail(Collection<UUID> ids, String email) {
+        UserResponseDto user = userService.getUserByEmail(email);
+        int personal = notificationRepository.markReadByRecipientIdAndIdIn(user.getId(), ids);
+        int broadcasts = notificationReceiptRepository.markBroadcastsRead(user.getId(), ids);
+        return applyBulkRead(user.getId(), personal, broadcasts);
+    }
+
+    @Transactional
+    public int markNotificationsAsReadBeforeByRecipientEmail(LocalDateTime before, String email) {
+        UserResponseDto user = userService.getUserByEmail(email);
+        int personal = notificationRepository.markReadByRecipientIdAndCreatedAtBefore(user.getId(), before);
+        int broadcasts = notificationReceiptRepository.markBroadcastsReadBefore(user.getId(), before);
+        return applyBulkRead(user.getId(), personal, broadcasts);
+    }
+
+    // read notifications don't count as unread, so the counters are unaffected
+    @Transactional
+    public int deleteReadNotificationsByRecipientEmail(String email) {
+        UserResponseDto user = userService.getUserByEmail(email);
+        return notificationRepository.deleteReadByRecipientId(user.getId())
+            + notificationReceiptRepository.dismissReadBroadcasts(user.getId());
     }
 
     public void notifyAllUsersCourseCreated(Course course, User sender) {
-        //TODO: optimize or remove, keeping it just for the demo
-        // This can lead to out of memory exception if there are too many users!
-        List<User> users = userRepository.findAll();
-        List<Notification> batch = new ArrayList<>(users.size());
-        LocalDateTime notificationTime = LocalDateTime.now();
-        for (User u : users) {
-            Notification n = new Notification();
-            n.setTitle("New course");
-            n.setMessage(course.getTitle());
-            n.setSender(sender);
-            n.setRecipient(u);
-            n.setCourse(course);
-            n.setCreatedAt(notificationTime);
-            n.setRead(false);
-            batch.add(n);
-        }
-        notificationRepository.saveAll(batch);
+        Notification n = new Notification();
+        n.setTitle("New course");
+        n.setMessage(course.getTitle());
+        n.setSender(sender);
+        n.setCourse(course);
+        n.setCreatedAt(LocalDateTime.now());
+        n.setRead(false);
+        Notification broadcast = notificationRepository.save(n);
+        notificationCounterService.broadcastCreated(broadcast.getId(), broadcast.getCreatedAt());
+        eventPublisher.publishEvent(new NotificationsChangedEvent(List.of(NotificationPush.broadcast(broadcast.getId()))));
     }
 
     public void notifyEnrolledUsersCourseUpdated(Course course, User sender, String message) {
+        if (enrollmentRepository.countByCourse(course) >= copyThreshold) {
+            copyCourseUpdatedNotifications(course, sender, message != null ? message : course.getTitle());
+            return;
+        }
         //TODO: this can also be optimized not to use repositories directly, and to throw adequate exceptions
         // keeping it for the demo to showcase notifications
         List<Enrollment> enrollments = enrollmentRepository.findByCourse(course);
@@ -116,7 +245,104 @@ public class NotificationService {
             n.setCreatedAt(LocalDateTime.now());
             batch.add(n);
         }
-        notificationRepository.saveAll(batch);
+        bulkWriter.persistAll(batch);
+        notificationCounterService.incrementAll(batch.stream().map(n -> n.getRecipient().getId()).toList());
+        eventPublisher.publishEvent(new NotificationsChangedEvent(batch.stream()
+            .map(n -> new NotificationPush(n.getRecipient().getId(), n.getId()))
+            .toList()));
+    }
+
+    // Large courses skip the entities altogether: recipient ids are read a page at a time and each page is copied in
+    // before the next is read, as the connection running a COPY can't also hold an open cursor. Subscribers get one
+    // push for the whole course and look up the rows of their own users.
+    private void copyCourseUpdatedNotifications(Course course, User sender, String message) {
+        LocalDateTime now = LocalDateTime.now();
+        UUID senderId = sender != null ? sender.getId() : null;
+        UUID firstNotificationId = null;
+        UUID after = FAN_OUT_START;
+        List<UUID> recipientIds;
+        do {
+            recipientIds = enrollmentRepository.findUserIdsByCourseIdAfter(course.getId(), after, FAN_OUT_PAGE_SIZE);
+            if (recipientIds.isEmpty()) {
+                break;
+            }
+            List<NotificationPush> pushes = recipientIds.stream()
+                .map(recipientId -> new NotificationPush(recipientId, TimeOrderedIdGenerator.nextId()))
+                .toList();
+            if (firstNotificationId == null) {
+                firstNotificationId = pushes.getFirst().notificationId();
+            }
+            copyIngestService.copy(NOTIFICATIONS_TABLE, NOTIFICATION_COLUMNS, pushes.iterator(), push -> Arrays.asList(
+                push.notificationId(), now, now, "Course updated", message, false, push.recipientId(), senderId,
+                course.getId()));
+            notificationCounterService.courseFanOutPageCreated(course.getId(), firstNotificationId, recipientIds);
+            after = recipientIds.getLast();
+        } while (recipientIds.size() == FAN_OUT_PAGE_SIZE);
+
+        if (firstNotificationId != null) {
+            eventPublisher.publishEvent(new NotificationsChangedEvent(
+                List.of(NotificationPush.courseFanOut(course.getId(), firstNotificationId))));
+        }
+    }
+
+    private Function<Notification, NotificationResponseDto> readStateMapper(
+        UUID userId, Collection<Notification> notifications
+    ) {
+        List<UUID> broadcastIds = notifications.stream()
+            .filter(n -> n.getRecipient() == null)
+            .map(Notification::getId)
+            .toList();
+        Set<UUID> readBroadcastIds = broadcastIds.isEmpty()
+            ? Set.of()
+            : notificationReceiptRepository.findReadNotificationIds(userId, broadcastIds);
+
+        return n -> {
+            NotificationResponseDto dto = notificationDtoMapper.mapToResponseDto(n);
+            if (dto.isBroadcast()) {
+                dto.setRead(readBroadcastIds.contains(n.getId()));
+            }
+            return dto;
+        };
+    }
+
+    private static String encodeCursor(Notification notification) {
+        String position = notification.getCreatedAt() + CURSOR_SEPARATOR + notification.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FeedPosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            return new FeedPosition(
+                LocalDateTime.parse(position.substring(0, separator)),
+                UUID.fromString(position.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new InvalidPageRequestException(INVALID_CURSOR_MESSAGE);
+        }
+    }
+
+    private int applyBulkRead(UUID userId, int personal, int broadcasts) {
+        int read = personal + broadcasts;
+        if (read > 0) {
+            notificationCounterService.adjust(userId, -read);
+            publishUnreadCountChanged(userId);
+        }
+        return read;
+    }
+
+    private void publishUnreadCountChanged(UUID userId) {
+        eventPublisher.publishEvent(new NotificationsChangedEvent(List.of(NotificationPush.unreadCountChanged(userId))));
+    }
+
+    private Notification getBroadcastEntityById(UUID id, UUID userId) {
+        return notificationRepository.findVisibleBroadcastById(id, userId)
+            .orElseThrow(() -> new EntityNotFoundException(format(NOTIFICATION_NOT_FOUND_MESSAGE, id, userId)));
+    }
+
+    private record FeedPosition(LocalDateTime createdAt, UUID id) {
+
     }
 
 }
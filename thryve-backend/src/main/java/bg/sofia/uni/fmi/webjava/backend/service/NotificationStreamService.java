@@ -0,0 +1,299 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.event.NotificationPush;
+import bg.sofia.uni.fmi.webjava.backend.event.NotificationsChangedEvent;
+import bg.sofia.uni.fmi.webjava.backend.mapper.NotificationDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Notification;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationStreamService {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_COUNT_EVENT = "unread-count";
+    private static final String HEARTBEAT_COMMENT = "heartbeat";
+    private static final int FAN_OUT_BATCH_SIZE = 1000;
+
+    private final UserService userService;
+    private final NotificationRepository notificationRepository;
+    private final NotificationDtoMapper notificationDtoMapper;
+    private final NotificationCounterService notificationCounterService;
+
+    @Value("${thryve.notifications.stream.timeout-ms}")
+    private long timeoutMs;
+
+    @Value("${thryve.notifications.stream.buffer-size}")
+    private int bufferSize;
+
+    @Value("${thryve.notifications.stream.max-connections-per-user}")
+    private int maxConnectionsPerUser;
+
+    // when the cluster bridge is on, pushes arrive through NotificationPushRelay instead
+    @Value("${thryve.cluster.bridge.enabled}")
+    private boolean bridgeEnabled;
+
+    private final Map<UUID, Deque<NotificationSubscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private Executor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(NotificationSubscription::close));
+        subscriptions.clear();
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    public SseEmitter subscribe(String email) {
+        UserResponseDto user = userService.getUserByEmail(email);
+        NotificationSubscription subscription = new NotificationSubscription(user.getId(), new SseEmitter(timeoutMs));
+        // the deque is only changed inside compute, so a concurrent remove cannot drop it while this adds to it;
+        // evicted connections are closed afterwards because closing one calls back into remove
+        List<NotificationSubscription> evicted = new ArrayList<>();
+        subscriptions.compute(user.getId(), (id, userSubscriptions) -> {
+            Deque<NotificationSubscription> deque =
+                userSubscriptions != null ? userSubscriptions : new ConcurrentLinkedDeque<>();
+            deque.addLast(subscription);
+            while (deque.size() > maxConnectionsPerUser) {
+                evicted.add(deque.pollFirst());
+            }
+            return deque;
+        });
+        evicted.forEach(NotificationSubscription::close);
+        // the first frame carries the current count, so clients don't have to poll on (re)connect
+        subscription.unreadCountChanged();
+        return subscription.emitter;
+    }
+
+    public int getConnectionCount() {
+        return subscriptions.values().stream().mapToInt(Collection::size).sum();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsChanged(NotificationsChangedEvent event) {
+        if (!bridgeEnabled) {
+            push(event.pushes());
+        }
+    }
+
+    public void push(List<NotificationPush> pushes) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> deliver(pushes));
+    }
+
+    void deliver(List<NotificationPush> pushes) {
+        try {
+            List<NotificationPush> localPushes = resolveCourseFanOuts(pushes).stream()
+                .filter(push -> push.isBroadcast() || subscriptions.containsKey(push.recipientId()))
+                .toList();
+            Map<UUID, NotificationResponseDto> notifications = loadNotifications(localPushes);
+            // every affected connection sends its count next, so the uncached ones are read in one go up front
+            notificationCounterService.loadUnreadCounts(affectedUserIds(localPushes));
+            for (NotificationPush push : localPushes) {
+                NotificationResponseDto notification = push.notificationId() == null
+                    ? null
+                    : notifications.get(push.notificationId());
+                if (push.isBroadcast()) {
+                    subscriptions.values().forEach(userSubscriptions -> push(userSubscriptions, notification));
+                } else {
+                    Deque<NotificationSubscription> userSubscriptions = subscriptions.get(push.recipientId());
+                    if (userSubscriptions != null) {
+                        push(userSubscriptions, notification);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to push notification changes to connected clients: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${thryve.notifications.stream.heartbeat-interval-ms}")
+    public void sendHeartbeats() {
+        subscriptions.values().forEach(userSubscriptions ->
+            userSubscriptions.forEach(NotificationSubscription::heartbeat));
+    }
+
+    private void push(Collection<NotificationSubscription> userSubscriptions, NotificationResponseDto notification) {
+        for (NotificationSubscription subscription : userSubscriptions) {
+            if (notification != null) {
+                subscription.enqueue(notification);
+            }
+            subscription.unreadCountChanged();
+        }
+    }
+
+    // a course fan-out arrives as one push, so only the rows of users connected here are looked up
+    private List<NotificationPush> resolveCourseFanOuts(List<NotificationPush> pushes) {
+        if (pushes.stream().noneMatch(NotificationPush::isCourseFanOut)) {
+            return pushes;
+        }
+        List<UUID> connected = List.copyOf(subscriptions.keySet());
+        List<NotificationPush> resolved = new ArrayList<>();
+        for (NotificationPush push : pushes) {
+            if (!push.isCourseFanOut()) {
+                resolved.add(push);
+                continue;
+            }
+            for (int from = 0; from < connected.size(); from += FAN_OUT_BATCH_SIZE) {
+                List<UUID> batch = connected.subList(from, Math.min(from + FAN_OUT_BATCH_SIZE, connected.size()));
+                notificationRepository.findCourseFanOut(push.courseId(), push.notificationId(), batch)
+                    .forEach(row -> resolved.add(new NotificationPush(row.getRecipientId(), row.getId())));
+            }
+        }
+        return resolved;
+    }
+
+    private Set<UUID> affectedUserIds(List<NotificationPush> pushes) {
+        if (pushes.stream().anyMatch(NotificationPush::isBroadcast)) {
+            return Set.copyOf(subscriptions.keySet());
+        }
+        return pushes.stream().map(NotificationPush::recipientId).collect(Collectors.toSet());
+    }
+
+    private Map<UUID, NotificationResponseDto> loadNotifications(List<NotificationPush> pushes) {
+        Set<UUID> ids = pushes.stream()
+            .map(NotificationPush::notificationId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return notificationRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Notification::getId, notificationDtoMapper::mapToResponseDto));
+    }
+
+    private void remove(NotificationSubscription subscription) {
+        subscriptions.computeIfPresent(subscription.userId, (id, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    // Each connection owns a bounded buffer drained by at most one virtual thread at a time. A slow consumer
+    // loses its oldest notifications instead of growing the buffer, and unread-count updates collapse into a
+    // single frame carrying the latest value.
+    private final class NotificationSubscription {
+
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<NotificationResponseDto> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean unreadCountDirty = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private NotificationSubscription(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(e -> close());
+        }
+
+        private void enqueue(NotificationResponseDto notification) {
+            while (!buffer.offer(notification)) {
+                buffer.poll();
+            }
+            scheduleDrain();
+        }
+
+        private void unreadCountChanged() {
+            unreadCountDirty.set(true);
+            scheduleDrain();
+        }
+
+        private void heartbeat() {
+            heartbeatDue.set(true);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!closed && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                NotificationResponseDto notification;
+                while (!closed && (notification = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event().name(NOTIFICATION_EVENT).id(notification.getId().toString())
+                        .data(notification));
+                }
+                if (!closed && unreadCountDirty.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().name(UNREAD_COUNT_EVENT)
+                        .data(notificationCounterService.getUnreadCount(userId)));
+                }
+                if (!closed && heartbeatDue.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment(HEARTBEAT_COMMENT));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } catch (RuntimeException e) {
+                log.error("Failed to push notifications to user {}: {}", userId, e.getMessage());
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && (!buffer.isEmpty() || unreadCountDirty.get() || heartbeatDue.get())) {
+                scheduleDrain();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            remove(this);
+            buffer.clear();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // already completed by the container
+            }
+        }
+
+    }
+
+}
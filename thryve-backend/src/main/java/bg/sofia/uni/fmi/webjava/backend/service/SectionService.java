@@ -1,5 +1,6 @@
 package bg.sofia.uni.fmi.webjava.backend.service;
 
+import bg.sofia.uni.fmi.webjava.backend.config.CoalescedRead;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
 import bg.sofia.uni.fmi.webjava.backend.mapper.SectionDtoMapper;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.section.SectionCreateDto;
@@ -28,6 +29,7 @@ public class SectionService {
     private final SectionDtoMapper sectionDtoMapper;
     private final CourseService courseService;
 
+    @CoalescedRead
     @Transactional
     public Page<SectionResponseDto> getSectionsByCourseId(UUID courseId, Pageable pageable) {
         return sectionRepository.findSectionsByCourseIdOrderByOrderNumber(courseId, pageable)
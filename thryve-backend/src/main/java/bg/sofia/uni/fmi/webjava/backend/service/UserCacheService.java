@@ -0,0 +1,107 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.event.PostgresChannelBridge;
+import bg.sofia.uni.fmi.webjava.backend.mapper.UserDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserSnapshot;
+import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Caches users by email for the lookups done on every authenticated request. Only existing users are cached,
+// so creating a user never needs an eviction. Evictions are relayed to the other nodes when the bridge is enabled.
+@Service
+@RequiredArgsConstructor
+public class UserCacheService {
+
+    static final String CACHE_NAME = "users";
+    static final String CHANNEL = "thryve_user_cache";
+
+    private final UserRepository userRepository;
+    private final UserDtoMapper userDtoMapper;
+    private final PostgresChannelBridge bridge;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${thryve.users.cache-size}")
+    private long cacheSize;
+
+    @Value("${thryve.users.cache-ttl-ms}")
+    private long cacheTtlMs;
+
+    private Cache<String, UserSnapshot> users;
+
+    @PostConstruct
+    public void init() {
+        users = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, CACHE_NAME);
+        if (bridge.isEnabled()) {
+            bridge.subscribe(CHANNEL, this::onMessage);
+        }
+    }
+
+    public Optional<UserSnapshot> findByEmail(String email) {
+        return Optional.ofNullable(users.get(email, this::loadUser));
+    }
+
+    // the local eviction waits for the commit, the relayed one is sent by NOTIFY when the transaction commits
+    public void evict(Collection<String> emails) {
+        afterCommit(() -> users.invalidateAll(emails));
+        if (bridge.isEnabled()) {
+            bridge.publish(CHANNEL, emails.stream().map(UserCacheService::encode).toList());
+        }
+    }
+
+    void onMessage(String payload) {
+        users.invalidateAll(decode(payload));
+    }
+
+    // emails may contain the bridge's entry separator, so they are sent encoded
+    static String encode(String email) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(email.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static List<String> decode(String payload) {
+        return Arrays.stream(payload.split(PostgresChannelBridge.ENTRY_SEPARATOR))
+            .map(entry -> new String(Base64.getUrlDecoder().decode(entry), StandardCharsets.UTF_8))
+            .toList();
+    }
+
+    private UserSnapshot loadUser(String email) {
+        return userRepository.findByEmail(email)
+            .map(userDtoMapper::mapUserToSnapshot)
+            .orElse(null);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,275 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.PasswordHashingUnavailableException;
+import bg.sofia.uni.fmi.webjava.backend.mapper.UserDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserCreateDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserImportResultDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserImportStatus;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.UserRole;
+import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
+import bg.sofia.uni.fmi.webjava.backend.security.auth.BoundedPasswordEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static bg.sofia.uni.fmi.webjava.backend.service.UserService.USER_WITH_EMAIL_ALREADY_EXISTS_ERROR_MESSAGE;
+import static bg.sofia.uni.fmi.webjava.backend.service.UserService.USER_WITH_USERNAME_ALREADY_EXISTS_ERROR_MESSAGE;
+import static java.lang.String.format;
+
+// Creates users from an uploaded CSV or NDJSON file and streams back one NDJSON result line per record. The upload is
+// read and answered a chunk at a time: each chunk is validated, checked for existing users with one query per unique
+// column, hashed on all hashing threads and inserted in JDBC batches, so memory does not grow with the file.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportService {
+
+    public static final String CSV_HEADER = "username,email,password,firstName,lastName";
+    public static final String INVALID_CSV_RECORD_MESSAGE = "Expected the fields %s but got %d fields!";
+    public static final String INVALID_JSON_RECORD_MESSAGE = "Invalid JSON record!";
+    public static final String DUPLICATE_IN_IMPORT_MESSAGE = "Email or username is used by an earlier record!";
+    public static final String USERS_NOT_SAVED_MESSAGE = "Users could not be saved, retry the record!";
+
+    static final MediaType NDJSON_UTF8 = new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8);
+
+    private static final int CSV_FIELDS = 5;
+
+    private final UserRepository userRepository;
+    private final UserDtoMapper userDtoMapper;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final BulkWriter bulkWriter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${thryve.users.import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${thryve.users.import.timeout-ms}")
+    private long timeoutMs;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public ResponseBodyEmitter importUsers(InputStream body, boolean ndjson) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        executor.execute(() -> {
+            try {
+                importUsers(body, ndjson, emitter);
+                emitter.complete();
+            } catch (IOException | RuntimeException e) {
+                log.warn("User import stopped", e);
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    void importUsers(InputStream body, boolean ndjson, ResponseBodyEmitter emitter) throws IOException {
+        ImportRecordIterator<ParsedUser> records = new ImportRecordIterator<>(
+            new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), !ndjson,
+            ndjson ? this::parseJsonRecord : UserImportService::parseCsvRecord);
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long created = 0;
+        while (records.hasNext()) {
+            ParsedUser parsed = records.next();
+            chunk.add(new ImportRow(records.getLineNumber(), parsed.user(), parsed.error()));
+            if (chunk.size() == chunkSize) {
+                created += importChunk(chunk, emitter);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, emitter);
+        }
+        log.info("Imported {} of {} users", created, records.getReceived());
+    }
+
+    private int importChunk(List<ImportRow> chunk, ResponseBodyEmitter emitter) throws IOException {
+        UserImportResultDto[] results = new UserImportResultDto[chunk.size()];
+        List<Integer> valid = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportRow row = chunk.get(i);
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error != null) {
+                results[i] = result(row, UserImportStatus.INVALID, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        List<Integer> accepted = findNewUsers(chunk, valid, results);
+        int created = 0;
+        if (!accepted.isEmpty()) {
+            try {
+                List<User> users = createUsers(accepted.stream().map(i -> chunk.get(i).user()).toList());
+                for (int j = 0; j < accepted.size(); j++) {
+                    results[accepted.get(j)] = new UserImportResultDto(chunk.get(accepted.get(j)).line(),
+                        users.get(j).getEmail(), UserImportStatus.CREATED, users.get(j).getId(), null);
+                }
+                created = users.size();
+            } catch (PasswordHashingUnavailableException | PersistenceException | DataAccessException e) {
+                // the whole chunk was rolled back, e.g. because a user with the same email registered meanwhile
+                log.warn("Could not save {} imported users", accepted.size(), e);
+                accepted.forEach(i -> results[i] = result(chunk.get(i), UserImportStatus.FAILED,
+                    USERS_NOT_SAVED_MESSAGE));
+            }
+        }
+
+        StringBuilder lines = new StringBuilder();
+        for (UserImportResultDto result : results) {
+            lines.append(objectMapper.writeValueAsString(result)).append('\n');
+        }
+        emitter.send(lines.toString(), NDJSON_UTF8);
+        return created;
+    }
+
+    // existing users are looked up for the whole chunk at once, duplicates within the upload are caught in memory
+    private List<Integer> findNewUsers(List<ImportRow> chunk, List<Integer> valid, UserImportResultDto[] results) {
+        if (valid.isEmpty()) {
+            return valid;
+        }
+        Set<String> existingEmails = userRepository.findExistingEmails(
+            valid.stream().map(i -> chunk.get(i).user().getEmail()).collect(Collectors.toSet()));
+        Set<String> existingUsernames = userRepository.findExistingUsernames(
+            valid.stream().map(i -> chunk.get(i).user().getUsername()).collect(Collectors.toSet()));
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenUsernames = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>(valid.size());
+        for (int i : valid) {
+            ImportRow row = chunk.get(i);
+            String email = row.user().getEmail();
+            String username = row.user().getUsername();
+            if (existingEmails.contains(email)) {
+                results[i] = result(row, UserImportStatus.DUPLICATE,
+                    format(USER_WITH_EMAIL_ALREADY_EXISTS_ERROR_MESSAGE, email));
+            } else if (existingUsernames.contains(username)) {
+                results[i] = result(row, UserImportStatus.DUPLICATE,
+                    format(USER_WITH_USERNAME_ALREADY_EXISTS_ERROR_MESSAGE, username));
+            } else if (seenEmails.contains(email) || seenUsernames.contains(username)) {
+                results[i] = result(row, UserImportStatus.DUPLICATE, DUPLICATE_IN_IMPORT_MESSAGE);
+            } else {
+                seenEmails.add(email);
+                seenUsernames.add(username);
+                accepted.add(i);
+            }
+        }
+        return accepted;
+    }
+
+    private List<User> createUsers(List<UserCreateDto> userCreateDtos) {
+        List<String> encodedPasswords = passwordEncoder.encodeAll(
+            userCreateDtos.stream().map(UserCreateDto::getPassword).toList());
+        List<User> users = new ArrayList<>(userCreateDtos.size());
+        for (int i = 0; i < userCreateDtos.size(); i++) {
+            User user = userDtoMapper.mapDtoToUser(userCreateDtos.get(i));
+            user.setPassword(encodedPasswords.get(i));
+            user.setRole(UserRole.STANDARD);
+            users.add(user);
+        }
+        bulkWriter.persistAll(users);
+        return users;
+    }
+
+    private String validate(UserCreateDto userCreateDto) {
+        Set<ConstraintViolation<UserCreateDto>> violations = validator.validate(userCreateDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private static UserImportResultDto result(ImportRow row, UserImportStatus status, String message) {
+        String email = row.user() == null ? null : row.user().getEmail();
+        return new UserImportResultDto(row.line(), email, status, null, message);
+    }
+
+    private ParsedUser parseJsonRecord(String line) {
+        try {
+            return new ParsedUser(objectMapper.readValue(line, UserCreateDto.class), null);
+        } catch (JsonProcessingException e) {
+            return new ParsedUser(null, INVALID_JSON_RECORD_MESSAGE);
+        }
+    }
+
+    private static ParsedUser parseCsvRecord(String line) {
+        List<String> fields = splitCsvLine(line);
+        if (fields.size() != CSV_FIELDS) {
+            return new ParsedUser(null, format(INVALID_CSV_RECORD_MESSAGE, CSV_HEADER, fields.size()));
+        }
+        return new ParsedUser(
+            new UserCreateDto(fields.get(0), fields.get(1), fields.get(2), fields.get(3), fields.get(4)), null);
+    }
+
+    // fields may be quoted to hold commas, with quotes inside a quoted field doubled
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>(CSV_FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ParsedUser(UserCreateDto user, String error) {
+    }
+
+    private record ImportRow(int line, UserCreateDto user, String error) {
+    }
+
+}
@@ -3,12 +3,14 @@ package bg.sofia.uni.fmi.webjava.backend.service;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserSnapshot;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityAlreadyExistsException;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
 import bg.sofia.uni.fmi.webjava.backend.mapper.UserDtoMapper;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.UserRole;
 import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
+import bg.sofia.uni.fmi.webjava.backend.security.auth.AuthService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -16,6 +18,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static java.lang.String.format;
@@ -32,6 +36,8 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserDtoMapper userDtoMapper;
     private final PasswordEncoder passwordEncoder;
+    private final AuthService authService;
+    private final UserCacheService userCacheService;
 
     @Transactional
     public Page<UserResponseDto> getAllUsers(Pageable pageable) {
@@ -74,7 +80,13 @@ public class UserService {
     @Transactional
     public UserResponseDto updateUserById(UUID id, UserUpdateDto userUpdateDto) {
         User user = getUserEntityById(id);
+        String previousEmail = user.getEmail();
         userDtoMapper.updateUserFromDto(userUpdateDto, user);
+        if (!previousEmail.equals(user.getEmail())) {
+            // tokens are issued to the email, so the ones for the old address must stop working
+            authService.revokeAllSessions(previousEmail);
+        }
+        userCacheService.evict(Set.copyOf(List.of(previousEmail, user.getEmail())));
         return userDtoMapper.mapUserToResponseDto(userRepository.save(user));
     }
 
@@ -82,16 +94,23 @@ public class UserService {
     public UserResponseDto deleteUserById(UUID id) {
         UserResponseDto userResponseDto = getUserById(id);
         userRepository.deleteById(id);
+        authService.revokeAllSessions(userResponseDto.getEmail());
+        userCacheService.evict(Set.of(userResponseDto.getEmail()));
         return userResponseDto;
     }
 
+    @Transactional
+    public void revokeSessionsByUserId(UUID id) {
+        authService.revokeAllSessions(getUserEntityById(id).getEmail());
+    }
+
     @Transactional
     public UserResponseDto getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email).orElseThrow(
+        UserSnapshot user = userCacheService.findByEmail(email).orElseThrow(
             () -> new EntityNotFoundException(
                 format(USER_WITH_EMAIL_NOT_FOUND_ERROR_MESSAGE, email))
         );
-        return userDtoMapper.mapUserToResponseDto(user);
+        return userDtoMapper.mapSnapshotToResponseDto(user);
     }
 
 }
@@ -0,0 +1,133 @@
+-- The schema as ddl-auto=update created it before Flyway took over, including Hibernate's generated constraint
+-- names. Existing databases have no Flyway history and are baselined at this version, so it must not change.
+
+create table assignment_submissions (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    comment text,
+    feedback text,
+    grade float(53),
+    submission_url varchar(255) not null,
+    assignment_id uuid,
+    user_id uuid,
+    primary key (id)
+);
+
+create table assignments (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    deadline timestamp(6),
+    description text,
+    title varchar(255) not null,
+    total_points float(53) not null,
+    course_id uuid,
+    primary key (id)
+);
+
+create table courses (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    description text,
+    image_url text,
+    title varchar(255) not null,
+    primary key (id)
+);
+
+create table enrollment_requests (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    state varchar(255) not null check (state in ('PENDING','ACCEPTED','REJECTED')),
+    course_id uuid,
+    user_id uuid,
+    primary key (id)
+);
+
+create table enrollments (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    type varchar(255) not null check (type in ('STUDENT','INSTRUCTOR')),
+    course_id uuid,
+    user_id uuid,
+    primary key (id)
+);
+
+create table notifications (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    message text not null,
+    read boolean not null,
+    title varchar(255) not null,
+    course_id uuid not null,
+    recipient_id uuid not null,
+    sender_id uuid,
+    primary key (id)
+);
+
+create table resources (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    name varchar(255) not null,
+    url varchar(255) not null,
+    section_id uuid,
+    primary key (id)
+);
+
+create table sections (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    order_number integer not null,
+    text_content text,
+    title varchar(255) not null,
+    course_id uuid,
+    primary key (id)
+);
+
+create table users (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255) check (role in ('STANDARD','CREATOR','ADMIN')),
+    username varchar(255) not null,
+    primary key (id)
+);
+
+alter table assignment_submissions add constraint UK4xyhky7ulup8mqcjqbit2w1dm unique (submission_url);
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table assignment_submissions
+    add constraint FKm7i7ubgh7y2n6mvg8muw62oax foreign key (assignment_id) references assignments;
+alter table assignment_submissions
+    add constraint FK9vxe3h8ndrokkmeci6mmi79gg foreign key (user_id) references users;
+alter table assignments
+    add constraint FK6p1m72jobsvmrrn4bpj4168mg foreign key (course_id) references courses;
+alter table enrollment_requests
+    add constraint FKdqsxlfvced3i9b4g6dn9fefsm foreign key (course_id) references courses;
+alter table enrollment_requests
+    add constraint FKtf9o2vj6hdfp0ieduenwkn03d foreign key (user_id) references users;
+alter table enrollments
+    add constraint FKho8mcicp4196ebpltdn9wl6co foreign key (course_id) references courses;
+alter table enrollments
+    add constraint FK3hjx6rcnbmfw368sxigrpfpx0 foreign key (user_id) references users;
+alter table notifications
+    add constraint FKoh27fkx95ebxkq14oyp13jvej foreign key (course_id) references courses;
+alter table notifications
+    add constraint FKqqnsjxlwleyjbxlmm213jaj3f foreign key (recipient_id) references users;
+alter table notifications
+    add constraint FK13vcnq3ukas06ho1yrbc5lrb5 foreign key (sender_id) references users;
+alter table resources
+    add constraint FKmboq316ob32tgkhnxomxugtmj foreign key (section_id) references sections;
+alter table sections
+    add constraint FK7ty9cevpq04d90ohtso1q8312 foreign key (course_id) references courses;
@@ -0,0 +1,18 @@
+-- Course announcements are stored once without a recipient, with per-user read and dismiss state in receipts.
+-- "if not exists" because databases run with the ddl-auto=update builds may already have the table.
+
+alter table notifications alter column recipient_id drop not null;
+
+create table if not exists notification_receipts (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    notification_id uuid not null,
+    user_id uuid not null,
+    dismissed boolean not null,
+    constraint pk_notification_receipts primary key (id),
+    constraint uk_notification_receipts_notification_user unique (notification_id, user_id),
+    constraint fk_notification_receipts_notification foreign key (notification_id)
+        references notifications (id) on delete cascade,
+    constraint fk_notification_receipts_user foreign key (user_id) references users (id) on delete cascade
+);
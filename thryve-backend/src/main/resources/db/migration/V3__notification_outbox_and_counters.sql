@@ -0,0 +1,22 @@
+-- Course notifications are expanded from an outbox, and unread counts are kept in a counter row per user.
+
+create table if not exists notification_outbox (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    type varchar(255) not null check (type in ('COURSE_CREATED', 'COURSE_UPDATED')),
+    course_id uuid not null,
+    sender_id uuid,
+    message text,
+    attempts integer not null,
+    available_at timestamp(6) not null,
+    constraint pk_notification_outbox primary key (id),
+    constraint fk_notification_outbox_course foreign key (course_id) references courses (id) on delete cascade,
+    constraint fk_notification_outbox_sender foreign key (sender_id) references users (id) on delete set null
+);
+
+create table if not exists notification_counters (
+    user_id uuid not null,
+    unread_count bigint not null,
+    constraint pk_notification_counters primary key (user_id)
+);
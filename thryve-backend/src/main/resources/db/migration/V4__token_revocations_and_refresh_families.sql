@@ -0,0 +1,18 @@
+-- Server-side token state: per-subject revocation cut-offs and refresh token rotation families.
+
+create table if not exists token_revocations (
+    subject varchar(255) not null,
+    revoked_at timestamp(6) not null,
+    constraint pk_token_revocations primary key (subject)
+);
+
+create table if not exists refresh_token_families (
+    id uuid not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    subject varchar(255) not null,
+    current_token_id uuid not null,
+    expires_at timestamp(6) not null,
+    revoked boolean not null,
+    constraint pk_refresh_token_families primary key (id)
+);
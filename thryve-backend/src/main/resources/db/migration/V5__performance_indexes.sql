@@ -0,0 +1,40 @@
+-- Secondary indexes for the hot lookups. "if not exists" because databases run with the ddl-auto=update builds
+-- may already carry some of them under the same names.
+
+-- keyset paging of the feed, including broadcasts through the recipient_id is null prefix
+create index if not exists idx_notifications_recipient_created_id on notifications (recipient_id, created_at desc, id);
+-- unread counters and the mark-as-read updates only ever look at unread rows
+create index if not exists idx_notifications_recipient_unread on notifications (recipient_id) where not read;
+-- broadcasts have no recipient and are listed and acknowledged by creation time
+create index if not exists idx_notifications_broadcast_created on notifications (created_at, id)
+    where recipient_id is null;
+create index if not exists idx_notifications_sender_created on notifications (sender_id, created_at desc);
+create index if not exists idx_notifications_course on notifications (course_id);
+create index if not exists idx_notifications_created on notifications (created_at);
+
+create index if not exists idx_notification_receipts_user_notification
+    on notification_receipts (user_id, notification_id);
+
+create index if not exists idx_enrollments_course_user on enrollments (course_id, user_id);
+create index if not exists idx_enrollments_user on enrollments (user_id);
+
+create index if not exists idx_enrollment_requests_course_user on enrollment_requests (course_id, user_id);
+create index if not exists idx_enrollment_requests_user on enrollment_requests (user_id);
+
+create index if not exists idx_sections_course_order on sections (course_id, order_number);
+create index if not exists idx_resources_section on resources (section_id);
+create index if not exists idx_assignments_course on assignments (course_id);
+
+create index if not exists idx_assignment_submissions_assignment on assignment_submissions (assignment_id);
+create index if not exists idx_assignment_submissions_user on assignment_submissions (user_id);
+
+create index if not exists idx_notification_outbox_available on notification_outbox (available_at);
+create index if not exists idx_notification_outbox_course_type on notification_outbox (course_id, type)
+    where attempts = 0;
+
+create index if not exists idx_token_revocations_revoked_at on token_revocations (revoked_at);
+
+create index if not exists idx_refresh_token_families_subject on refresh_token_families (subject);
+create index if not exists idx_refresh_token_families_revoked_updated on refresh_token_families (updated_at)
+    where revoked;
+create index if not exists idx_refresh_token_families_expires on refresh_token_families (expires_at);
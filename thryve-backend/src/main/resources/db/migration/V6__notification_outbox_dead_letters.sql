@@ -0,0 +1,8 @@
+-- Events that keep failing stop being retried after thryve.notifications.outbox.max-attempts and stay behind,
+-- with their last error, as dead letters.
+
+alter table notification_outbox add column dead_lettered boolean not null default false;
+alter table notification_outbox add column last_error text;
+
+drop index if exists idx_notification_outbox_available;
+create index idx_notification_outbox_available on notification_outbox (available_at) where not dead_lettered;
@@ -0,0 +1,5 @@
+-- Remembers the token each family was last rotated from, so a concurrent or retried refresh with that token
+-- gets the successor within jwt.refresh-tokens.reuse-grace-ms instead of revoking the family.
+
+alter table refresh_token_families add column previous_token_id uuid;
+alter table refresh_token_families add column rotated_at timestamp(6);
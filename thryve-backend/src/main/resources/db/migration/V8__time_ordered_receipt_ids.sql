@@ -0,0 +1,15 @@
+-- Receipts are inserted set-wise in SQL, so their ids can't come from the application's ULID generator. This
+-- generates a version 7 uuid instead: the first 48 bits are the millisecond timestamp like in the application's
+-- ids, so receipts are appended to the right edge of the primary key index too.
+
+create or replace function time_ordered_uuid() returns uuid as $$
+    select encode(
+        set_bit(
+            set_bit(
+                overlay(uuid_send(gen_random_uuid())
+                        placing substring(int8send(floor(extract(epoch from clock_timestamp()) * 1000)::bigint) from 3)
+                        from 1 for 6),
+                52, 1),
+            53, 1),
+        'hex')::uuid;
+$$ language sql volatile;
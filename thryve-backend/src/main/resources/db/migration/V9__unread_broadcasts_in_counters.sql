@@ -0,0 +1,12 @@
+-- unread_count now also holds the broadcasts a user hasn't read yet, so the unread count is read from the counter
+-- row alone. Every counter is rebuilt once here; from now on broadcasts and receipts keep it up to date.
+
+insert into notification_counters (user_id, unread_count)
+select u.id,
+       (select count(*) from notifications n where n.recipient_id = u.id and not n.read)
+           + (select count(*) from notifications n
+              where n.recipient_id is null and n.created_at >= u.created_at
+                and not exists (select 1 from notification_receipts r
+                                where r.notification_id = n.id and r.user_id = u.id))
+from users u
+on conflict (user_id) do update set unread_count = excluded.unread_count;
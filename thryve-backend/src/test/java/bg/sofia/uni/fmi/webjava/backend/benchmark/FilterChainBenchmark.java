@@ -0,0 +1,130 @@
+package bg.sofia.uni.fmi.webjava.backend.benchmark;
+
+import bg.sofia.uni.fmi.webjava.backend.repository.TokenRevocationRepository;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtAuthenticationEntryPoint;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtAuthenticationFilter;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtKeyring;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtService;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.TokenRevocationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Overhead the JWT filter adds to a request, for each kind of request it sees. The user lookup is an in-memory
+// stub, so the numbers exclude the database. Not picked up by surefire; run the main method from the test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    private static final String SECRET = "dGhpc2lzYXZlcnlsb25nc2VjcmV0a2V5Zm9ydGVzdGluZ3B1cnBvc2VzMTIzNDU2Nzg5MA==";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"false", "true"})
+    private boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(JwtKeyring.ofSecret(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))));
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", 10_000L);
+        jwtService.init();
+
+        UserDetails user = new User("bench@example.com", "password", List.of(new SimpleGrantedAuthority("ROLE_STANDARD")));
+        UserDetailsService userDetailsService = username -> new User(username, "password", user.getAuthorities());
+        TokenRevocationService tokenRevocationService =
+            new TokenRevocationService(Mockito.mock(TokenRevocationRepository.class));
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenRevocationService,
+            new JwtAuthenticationEntryPoint(new ObjectMapper()));
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+        authorizationHeader = "Bearer " + jwtService.generateAccessToken(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse publicRoute() throws ServletException, IOException {
+        MockHttpServletRequest request = request("POST", "/api/auth/login");
+        request.addHeader("Authorization", authorizationHeader);
+        return run(request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse missingHeader() throws ServletException, IOException {
+        return run(request("GET", "/api/courses"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse malformedToken() throws ServletException, IOException {
+        MockHttpServletRequest request = request("GET", "/api/courses");
+        request.addHeader("Authorization", "Bearer not-a-token");
+        return run(request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse validToken() throws ServletException, IOException {
+        MockHttpServletRequest request = request("GET", "/api/courses");
+        request.addHeader("Authorization", authorizationHeader);
+        return run(request);
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(FilterChainBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+}
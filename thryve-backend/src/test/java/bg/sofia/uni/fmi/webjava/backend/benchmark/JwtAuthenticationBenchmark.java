@@ -0,0 +1,91 @@
+package bg.sofia.uni.fmi.webjava.backend.benchmark;
+
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtKeyring;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-request token verification cost. Not picked up by surefire; run the main method from the test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "dGhpc2lzYXZlcnlsb25nc2VjcmV0a2V5Zm9ydGVzdGluZ3B1cnBvc2VzMTIzNDU2Nzg5MA==";
+
+    private SecretKey key;
+    private String token;
+    private JwtParser parser;
+    private JwtService jwtService;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        parser = Jwts.parser().verifyWith(key).build();
+        jwtService = createJwtService();
+        User user = new User("bench@example.com", "password", List.of(new SimpleGrantedAuthority("ROLE_STANDARD")));
+        token = jwtService.generateAccessToken(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    // what the filter used to do: a new parser and a full verification for the username, then again to validate
+    @Benchmark
+    public void doubleParseWithNewParsers(Blackhole blackhole) {
+        blackhole.consume(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject());
+        blackhole.consume(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Benchmark
+    public Claims singleParseWithReusedParser() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims cachedVerifiedClaims() {
+        return jwtService.extractClaims(token);
+    }
+
+    private static JwtService createJwtService() {
+        JwtService jwtService = new JwtService(JwtKeyring.ofSecret(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))));
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", 10_000L);
+        jwtService.init();
+        return jwtService;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtAuthenticationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+}
@@ -0,0 +1,184 @@
+package bg.sofia.uni.fmi.webjava.backend.benchmark;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Assignment;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.AssignmentSubmission;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Enrollment;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.EnrollmentRequest;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Notification;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationCounter;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEvent;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationReceipt;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.RefreshTokenFamily;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Resource;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Section;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.TimeOrderedIdGenerator;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.TokenRevocation;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.UserRole;
+import bg.sofia.uni.fmi.webjava.backend.service.BulkWriter;
+import bg.sofia.uni.fmi.webjava.backend.service.CopyIngestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rows per second when 100k notifications are written the ways the course update fan-out writes them: through
+// BulkWriter with one statement per row, with JDBC batches, or with batches the driver rewrites into multi-row inserts,
+// and through CopyIngestService for large courses.
+// Needs an empty Postgres database that it migrates and cleans, set with -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user
+// and -Dbenchmark.jdbc.password. Not picked up by surefire; run the main method from the test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class NotificationBulkInsertBenchmark {
+
+    private static final int NOTIFICATIONS = 100_000;
+    private static final int RECIPIENTS = 1_000;
+    private static final int BATCH_SIZE = 50;
+    private static final List<String> COPY_COLUMNS = List.of(
+        "id", "created_at", "updated_at", "title", "message", "read", "recipient_id", "sender_id", "course_id");
+
+    @Param({"unbatched", "batched", "batched-rewritten", "copy"})
+    private String writes;
+
+    private SessionFactory sessionFactory;
+    private Course course;
+    private List<User> recipients;
+
+    @Setup
+    public void setUp() {
+        String url = System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/thryve_benchmark");
+        String user = System.getProperty("benchmark.jdbc.user", "postgres");
+        String password = System.getProperty("benchmark.jdbc.password", "postgres");
+        Flyway flyway = Flyway.configure().dataSource(url, user, password).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        Configuration configuration = new Configuration()
+            .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "batched-rewritten".equals(writes)
+                ? url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true"
+                : url)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_USER, user)
+            .setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, password)
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "unbatched".equals(writes) ? 1 : BATCH_SIZE)
+            .setProperty(AvailableSettings.ORDER_INSERTS, true)
+            .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        for (Class<?> entity : List.of(Assignment.class, AssignmentSubmission.class, Course.class, Enrollment.class,
+            EnrollmentRequest.class, Notification.class, NotificationCounter.class, NotificationOutboxEvent.class,
+            NotificationReceipt.class, RefreshTokenFamily.class, Resource.class, Section.class, TokenRevocation.class,
+            User.class)) {
+            configuration.addAnnotatedClass(entity);
+        }
+        sessionFactory = configuration.buildSessionFactory();
+
+        course = new Course();
+        course.setTitle("Benchmark course");
+        recipients = new ArrayList<>();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            User recipient = new User();
+            recipient.setUsername("benchmark" + i);
+            recipient.setFirstName("Bench");
+            recipient.setLastName("Mark");
+            recipient.setEmail("benchmark" + i + "@example.com");
+            recipient.setPassword("password");
+            recipient.setRole(UserRole.STANDARD);
+            recipients.add(recipient);
+        }
+        sessionFactory.inTransaction(session -> {
+            session.persist(course);
+            recipients.forEach(session::persist);
+        });
+    }
+
+    @Setup(Level.Invocation)
+    public void deleteNotifications() {
+        sessionFactory.inTransaction(session ->
+            session.createNativeMutationQuery("truncate table notifications cascade").executeUpdate());
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NOTIFICATIONS)
+    public void insertNotifications() {
+        List<Notification> notifications = new ArrayList<>(NOTIFICATIONS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            Notification notification = new Notification();
+            notification.setTitle("Course updated");
+            notification.setMessage(course.getTitle());
+            notification.setRecipient(recipients.get(i % RECIPIENTS));
+            notification.setCourse(course);
+            notification.setCreatedAt(now);
+            notifications.add(notification);
+        }
+        if ("copy".equals(writes)) {
+            copyNotifications(notifications);
+            return;
+        }
+        try (Session session = sessionFactory.openSession()) {
+            BulkWriter bulkWriter = new BulkWriter(session);
+            ReflectionTestUtils.setField(bulkWriter, "batchSize", BATCH_SIZE);
+            session.beginTransaction();
+            bulkWriter.persistAll(notifications);
+            session.getTransaction().commit();
+        }
+    }
+
+    private void copyNotifications(List<Notification> notifications) {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            session.doWork(connection -> {
+                CopyIngestService copyIngestService = new CopyIngestService(
+                    new JdbcTemplate(new SingleConnectionDataSource(connection, true)), session,
+                    new SimpleMeterRegistry());
+                copyIngestService.copy("notifications", COPY_COLUMNS, notifications.iterator(), n -> Arrays.asList(
+                    TimeOrderedIdGenerator.nextId(), n.getCreatedAt(), n.getCreatedAt(), n.getTitle(), n.getMessage(),
+                    n.isRead(), n.getRecipient().getId(), null, n.getCourse().getId()));
+            });
+            session.getTransaction().commit();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(NotificationBulkInsertBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+}
@@ -0,0 +1,114 @@
+package bg.sofia.uni.fmi.webjava.backend.benchmark;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.TimeOrderedIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Insert throughput and primary key index size for random v4 ids against time-ordered ones, on a table shaped like
+// notifications. Needs a Postgres database, set with -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user and
+// -Dbenchmark.jdbc.password. The index size per row is printed after each trial. Not picked up by surefire; run the
+// main method from the test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PrimaryKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String TABLE = "benchmark_primary_keys";
+
+    @Param({"random", "time-ordered"})
+    private String ids;
+
+    @Param({"200000"})
+    private int preloadedRows;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private Supplier<UUID> idSupplier;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+            System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/thryve"),
+            System.getProperty("benchmark.jdbc.user", "postgres"),
+            System.getProperty("benchmark.jdbc.password", "postgres"));
+        idSupplier = "random".equals(ids) ? UUID::randomUUID : TimeOrderedIdGenerator::nextId;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + TABLE);
+            statement.execute("create table " + TABLE + " (id uuid primary key, recipient_id uuid, "
+                + "title varchar(255) not null, created_at timestamp(6) not null)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(
+            "insert into " + TABLE + " (id, recipient_id, title, created_at) values (?, ?, ?, ?)");
+        for (int i = 0; i < preloadedRows; i += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select count(*), pg_relation_size('" + TABLE + "_pkey') "
+                 + "from " + TABLE)) {
+            result.next();
+            long rows = result.getLong(1);
+            long indexBytes = result.getLong(2);
+            System.out.printf("%n%s ids: %d rows, primary key index %d KiB, %.1f bytes per row%n",
+                ids, rows, indexBytes / 1024, (double) indexBytes / rows);
+            statement.execute("drop table " + TABLE);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    // one operation is one committed batch of BATCH_SIZE rows
+    @Benchmark
+    public int[] insertBatch() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, idSupplier.get());
+            insert.setObject(2, UUID.randomUUID());
+            insert.setString(3, "Benchmark notification");
+            insert.setTimestamp(4, now);
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PrimaryKeyInsertBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+
+}
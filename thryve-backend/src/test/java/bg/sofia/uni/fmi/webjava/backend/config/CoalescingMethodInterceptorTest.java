@@ -0,0 +1,137 @@
+package bg.sofia.uni.fmi.webjava.backend.config;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CoalescingMethodInterceptorTest {
+
+    private static final UUID COURSE_ID = UUID.randomUUID();
+
+    private CoalescingMethodInterceptor interceptor;
+    private Method method;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        interceptor = new CoalescingMethodInterceptor(100, Duration.ofMinutes(1), SimpleMeterRegistry::new);
+        method = Object.class.getMethod("toString");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testConcurrentIdenticalCallsShareOneInvocation() throws Throwable {
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] results = new Future<?>[8];
+            for (int i = 0; i < results.length; i++) {
+                MethodInvocation invocation = invocation(COURSE_ID, () -> {
+                    invocations.incrementAndGet();
+                    release.await();
+                    return "course";
+                });
+                results[i] = executor.submit(() -> invokeUnchecked(invocation));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<?> result : results) {
+                assertEquals("course", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, invocations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testResultIsReusedWithinTtl() throws Throwable {
+        AtomicInteger invocations = new AtomicInteger();
+
+        interceptor.invoke(invocation(COURSE_ID, invocations::incrementAndGet));
+        Object second = interceptor.invoke(invocation(COURSE_ID, invocations::incrementAndGet));
+
+        assertEquals(1, second);
+        assertEquals(1, invocations.get());
+    }
+
+    @Test
+    void testDifferentArgumentsAreNotShared() throws Throwable {
+        AtomicInteger invocations = new AtomicInteger();
+
+        interceptor.invoke(invocation(COURSE_ID, invocations::incrementAndGet));
+        interceptor.invoke(invocation(UUID.randomUUID(), invocations::incrementAndGet));
+
+        assertEquals(2, invocations.get());
+    }
+
+    @Test
+    void testFailuresPropagateAndAreNotCached() throws Throwable {
+        assertThrows(EntityNotFoundException.class, () -> interceptor.invoke(invocation(COURSE_ID, () -> {
+            throw new EntityNotFoundException("missing");
+        })));
+
+        assertEquals("course", interceptor.invoke(invocation(COURSE_ID, () -> "course")));
+    }
+
+    @Test
+    void testCallsInsideTransactionAreNotCoalesced() throws Throwable {
+        AtomicInteger invocations = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        interceptor.invoke(invocation(COURSE_ID, invocations::incrementAndGet));
+        interceptor.invoke(invocation(COURSE_ID, invocations::incrementAndGet));
+
+        assertEquals(2, invocations.get());
+        assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    private Object invokeUnchecked(MethodInvocation invocation) throws Exception {
+        try {
+            return interceptor.invoke(invocation);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private MethodInvocation invocation(UUID argument, Body body) throws Throwable {
+        MethodInvocation invocation = mock();
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.getArguments()).thenReturn(new Object[] {argument});
+        when(invocation.proceed()).thenAnswer(answer -> body.run());
+        return invocation;
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        Object run() throws Exception;
+    }
+
+}
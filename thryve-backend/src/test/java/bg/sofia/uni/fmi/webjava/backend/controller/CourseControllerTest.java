@@ -2,8 +2,10 @@ package bg.sofia.uni.fmi.webjava.backend.controller;
 
 import bg.sofia.uni.fmi.webjava.backend.model.dto.EntityModificationResponse;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseCreateDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseOutlineDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseUpdateDto;
+import bg.sofia.uni.fmi.webjava.backend.service.CourseOutlineService;
 import bg.sofia.uni.fmi.webjava.backend.service.CourseService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,7 +16,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,9 +29,11 @@ import static bg.sofia.uni.fmi.webjava.backend.controller.CourseController.COURS
 import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestCourseResponseDto;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,12 +43,16 @@ public class CourseControllerTest {
     @Mock
     private CourseService courseService;
 
+    @Mock
+    private CourseOutlineService courseOutlineService;
+
     @InjectMocks
     private CourseController courseController;
 
     private static final UUID COURSE_ID = UUID.randomUUID();
     private static final String CREATOR_EMAIL = "creator@test.com";
     private static final CourseResponseDto TEST_COURSE_RESPONSE_DTO = createTestCourseResponseDto();
+    private static final String OUTLINE_ETAG = "\"5f3a-2-4-1\"";
 
     @Test
     void testGetAllCourses() {
@@ -55,6 +66,35 @@ public class CourseControllerTest {
         verify(courseService).getAllCourses(any());
     }
 
+    @Test
+    void testGetCourseOutline() {
+        CourseOutlineDto outline = new CourseOutlineDto();
+        when(courseOutlineService.getCourseOutlineETag(COURSE_ID)).thenReturn(OUTLINE_ETAG);
+        when(courseOutlineService.getCourseOutline(COURSE_ID)).thenReturn(outline);
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/"),
+            new MockHttpServletResponse());
+
+        ResponseEntity<CourseOutlineDto> response = courseController.getCourseOutline(COURSE_ID, request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(OUTLINE_ETAG, response.getHeaders().getETag());
+        assertEquals(outline, response.getBody());
+    }
+
+    @Test
+    void testGetCourseOutlineNotModified() {
+        when(courseOutlineService.getCourseOutlineETag(COURSE_ID)).thenReturn(OUTLINE_ETAG);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/");
+        servletRequest.addHeader("If-None-Match", OUTLINE_ETAG);
+
+        ResponseEntity<CourseOutlineDto> response = courseController.getCourseOutline(COURSE_ID,
+            new ServletWebRequest(servletRequest, new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(courseOutlineService, never()).getCourseOutline(any());
+    }
+
     @Test
     void testGetCourseById() {
         when(courseService.getCourseById(eq(COURSE_ID))).thenReturn(TEST_COURSE_RESPONSE_DTO);
@@ -1,6 +1,7 @@
 package bg.sofia.uni.fmi.webjava.backend.controller;
 
 import bg.sofia.uni.fmi.webjava.backend.model.dto.EntityModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.ImportResultDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentUpdateDto;
@@ -15,12 +16,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.ResponseEntity;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
 import static bg.sofia.uni.fmi.webjava.backend.controller.EnrollmentController.ENROLLMENT_CREATED_MESSAGE;
 import static bg.sofia.uni.fmi.webjava.backend.controller.EnrollmentController.ENROLLMENT_DELETED_MESSAGE;
 import static bg.sofia.uni.fmi.webjava.backend.controller.EnrollmentController.ENROLLMENT_UPDATED_MESSAGE;
+import static bg.sofia.uni.fmi.webjava.backend.controller.EnrollmentController.ENROLLMENTS_IMPORTED_MESSAGE;
 import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestEnrollmentResponseDto;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -150,4 +155,19 @@ public class EnrollmentControllerTest {
         verify(enrollmentService).deleteEnrollmentById(eq(ENROLLMENT_ID));
     }
 
+    @Test
+    void testImportEnrollments() {
+        InputStream csv = new ByteArrayInputStream("userId,courseId\n".getBytes(StandardCharsets.UTF_8));
+        ImportResultDto result = new ImportResultDto(3, 2);
+        when(enrollmentService.importEnrollments(eq(csv))).thenReturn(result);
+
+        ResponseEntity<EntityModificationResponse<ImportResultDto>> response = enrollmentController
+            .importEnrollments(csv);
+
+        assertNotNull(response.getBody());
+        assertEquals(ENROLLMENTS_IMPORTED_MESSAGE, response.getBody().getMessage());
+        assertEquals(result, response.getBody().getData());
+        verify(enrollmentService).importEnrollments(eq(csv));
+    }
+
 }
@@ -1,8 +1,12 @@
 package bg.sofia.uni.fmi.webjava.backend.controller;
 
+import bg.sofia.uni.fmi.webjava.backend.model.dto.BulkModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.CursorPage;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.EntityModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationIdsDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.service.NotificationService;
+import bg.sofia.uni.fmi.webjava.backend.service.NotificationStreamService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -10,9 +14,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,6 +38,9 @@ public class NotificationControllerTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private NotificationStreamService notificationStreamService;
+
     @InjectMocks
     private NotificationController notificationController;
 
@@ -54,6 +64,20 @@ public class NotificationControllerTest {
         verify(notificationService).getNotificationsByRecipientEmail(eq(TEST_EMAIL), any());
     }
 
+    @Test
+    void testGetMyNotificationFeed() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn(TEST_EMAIL);
+        CursorPage<NotificationResponseDto> page = new CursorPage<>(List.of(TEST_NOTIFICATION), "cursor");
+        when(notificationService.getNotificationFeedByRecipientEmail(
+            TEST_EMAIL, null, 20, "createdAt", Sort.Direction.DESC)).thenReturn(page);
+
+        ResponseEntity<CursorPage<NotificationResponseDto>> response =
+            notificationController.getMyNotificationFeed(auth, null, 20, "createdAt", "DESC");
+
+        assertEquals(page, response.getBody());
+    }
+
     @Test
     void testGetMyUnreadCount() {
         Authentication auth = mock(Authentication.class);
@@ -67,6 +91,71 @@ public class NotificationControllerTest {
         verify(notificationService).getUnreadNotificationsCountByRecipientEmail(TEST_EMAIL);
     }
 
+    @Test
+    void testStreamMyNotifications() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn(TEST_EMAIL);
+        SseEmitter emitter = new SseEmitter();
+        when(notificationStreamService.subscribe(TEST_EMAIL)).thenReturn(emitter);
+
+        SseEmitter response = notificationController.streamMyNotifications(auth);
+
+        assertEquals(emitter, response);
+        verify(notificationStreamService).subscribe(TEST_EMAIL);
+    }
+
+    @Test
+    void testMarkAllAsRead() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn(TEST_EMAIL);
+        when(notificationService.markAllNotificationsAsReadByRecipientEmail(TEST_EMAIL)).thenReturn(7);
+
+        ResponseEntity<BulkModificationResponse> response = notificationController.markAllAsRead(auth);
+
+        assertNotNull(response.getBody());
+        assertEquals(7, response.getBody().getAffected());
+        verify(notificationService).markAllNotificationsAsReadByRecipientEmail(TEST_EMAIL);
+    }
+
+    @Test
+    void testMarkAsReadByIds() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn(TEST_EMAIL);
+        List<UUID> ids = List.of(NOTIFICATION_ID);
+        when(notificationService.markNotificationsAsReadByRecipientEmail(ids, TEST_EMAIL)).thenReturn(1);
+
+        ResponseEntity<BulkModificationResponse> response =
+            notificationController.markAsReadByIds(new NotificationIdsDto(ids), auth);
+
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getAffected());
+    }
+
+    @Test
+    void testMarkAsReadBefore() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn(TEST_EMAIL);
+        LocalDateTime before = LocalDateTime.now();
+        when(notificationService.markNotificationsAsReadBeforeByRecipientEmail(before, TEST_EMAIL)).thenReturn(3);
+
+        ResponseEntity<BulkModificationResponse> response = notificationController.markAsReadBefore(before, auth);
+
+        assertNotNull(response.getBody());
+        assertEquals(3, response.getBody().getAffected());
+    }
+
+    @Test
+    void testDeleteReadNotifications() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn(TEST_EMAIL);
+        when(notificationService.deleteReadNotificationsByRecipientEmail(TEST_EMAIL)).thenReturn(2);
+
+        ResponseEntity<BulkModificationResponse> response = notificationController.deleteReadNotifications(auth);
+
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getAffected());
+    }
+
     @Test
     void testMarkAsRead() {
         Authentication auth = mock(Authentication.class);
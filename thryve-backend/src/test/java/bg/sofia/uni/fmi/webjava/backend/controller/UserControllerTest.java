@@ -1,9 +1,11 @@
 package bg.sofia.uni.fmi.webjava.backend.controller;
 
 import bg.sofia.uni.fmi.webjava.backend.model.dto.EntityModificationResponse;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.MessageResponse;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserUpdateDto;
+import bg.sofia.uni.fmi.webjava.backend.service.UserImportService;
 import bg.sofia.uni.fmi.webjava.backend.service.UserService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -13,9 +15,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,6 +39,9 @@ public class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserImportService userImportService;
+
     @InjectMocks
     private UserController userController;
 
@@ -61,6 +70,17 @@ public class UserControllerTest {
         verify(userService).getUserById(eq(USER_ID));
     }
 
+    @Test
+    void testImportUsersDetectsNdjson() {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        when(userImportService.importUsers(eq(body), eq(true))).thenReturn(emitter);
+
+        assertEquals(emitter, userController.importUsers(MediaType.APPLICATION_NDJSON, body));
+        userController.importUsers(MediaType.parseMediaType("text/csv;charset=UTF-8"), body);
+        verify(userImportService).importUsers(eq(body), eq(false));
+    }
+
     @Test
     void testRegisterUser() {
         UserCreateDto createDto = new UserCreateDto(
@@ -109,6 +129,15 @@ public class UserControllerTest {
         verify(userService).deleteUserById(USER_ID);
     }
 
+    @Test
+    void testRevokeSessionsByUserId() {
+        ResponseEntity<MessageResponse> response = userController.revokeSessionsByUserId(USER_ID);
+
+        Assertions.assertNotNull(response.getBody());
+        assertEquals(UserController.REVOKED_USER_SESSIONS_MESSAGE, response.getBody().getMessage());
+        verify(userService).revokeSessionsByUserId(eq(USER_ID));
+    }
+
     @Test
     void testGetCurrentlyLoggedUser() {
         Authentication auth = mock();
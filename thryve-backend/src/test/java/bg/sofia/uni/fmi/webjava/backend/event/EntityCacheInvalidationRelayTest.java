@@ -0,0 +1,93 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EntityCacheInvalidationRelayTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private ObjectProvider<EntityCacheInvalidationTransport> transportProvider;
+
+    @Mock
+    private EntityCacheInvalidationTransport transport;
+
+    @Mock
+    private EntityPersister persister;
+
+    private EntityCacheInvalidationRelay relay;
+
+    private static final UUID COURSE_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        relay = new EntityCacheInvalidationRelay(entityManagerFactory, transportProvider);
+        ReflectionTestUtils.setField(relay, "transport", transport);
+    }
+
+    @Test
+    void testCachedEntityWritesArePublished() {
+        when(persister.canWriteToCache()).thenReturn(true);
+        when(persister.getEntityName()).thenReturn(Course.class.getName());
+
+        relay.onPostUpdate(new PostUpdateEvent(new Course(), COURSE_ID, null, null, null, persister, null));
+
+        verify(transport).publish(List.of(Course.class.getName() + "," + COURSE_ID));
+    }
+
+    @Test
+    void testUncachedEntityWritesAreNotPublished() {
+        when(persister.canWriteToCache()).thenReturn(false);
+
+        relay.onPostUpdate(new PostUpdateEvent(new Course(), COURSE_ID, null, null, null, persister, null));
+
+        verify(transport, never()).publish(anyCollection());
+    }
+
+    @Test
+    void testOnMessageEvictsEntityCollectionsAndQueries() {
+        SessionFactoryImplementor sessionFactory = mock();
+        CacheImplementor cache = mock();
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        relay.onMessage(List.of(EntityCacheInvalidationRelay.encode(Course.class.getName(), COURSE_ID)));
+
+        verify(cache).evictEntityData(Course.class.getName(), COURSE_ID);
+        verify(cache).evictCollectionData();
+        verify(cache).evictQueryRegions();
+    }
+
+    @Test
+    void testInitWithoutTransportRegistersNothing() {
+        when(transportProvider.getIfAvailable()).thenReturn(null);
+
+        relay.init();
+
+        verify(entityManagerFactory, never()).unwrap(SessionFactoryImplementor.class);
+    }
+
+}
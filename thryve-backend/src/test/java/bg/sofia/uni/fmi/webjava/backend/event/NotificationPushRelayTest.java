@@ -0,0 +1,114 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import bg.sofia.uni.fmi.webjava.backend.service.NotificationCounterService;
+import bg.sofia.uni.fmi.webjava.backend.service.NotificationStreamService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationPushRelayTest {
+
+    @Mock
+    private PostgresChannelBridge bridge;
+
+    @Mock
+    private NotificationStreamService notificationStreamService;
+
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @InjectMocks
+    private NotificationPushRelay relay;
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID NOTIFICATION_ID = UUID.randomUUID();
+    private static final UUID COURSE_ID = UUID.randomUUID();
+    private static final List<NotificationPush> PUSHES = List.of(
+        new NotificationPush(USER_ID, NOTIFICATION_ID),
+        NotificationPush.broadcast(NOTIFICATION_ID),
+        NotificationPush.unreadCountChanged(USER_ID),
+        NotificationPush.courseFanOut(COURSE_ID, NOTIFICATION_ID)
+    );
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        String payload = String.join(PostgresChannelBridge.ENTRY_SEPARATOR,
+            PUSHES.stream().map(NotificationPushRelay::encode).toList());
+
+        assertEquals(PUSHES, NotificationPushRelay.decode(payload));
+        assertEquals(46, NotificationPushRelay.encode(PUSHES.getFirst()).length());
+    }
+
+    @Test
+    void testDecodeEntriesWithoutCourse() {
+        String payload = NotificationPushRelay.encode(new NotificationPush(USER_ID, NOTIFICATION_ID));
+
+        assertEquals(List.of(new NotificationPush(USER_ID, NOTIFICATION_ID)),
+            NotificationPushRelay.decode(payload.substring(0, payload.lastIndexOf(','))));
+    }
+
+    @Test
+    void testOnNotificationsChangedPublishesWhenEnabled() {
+        when(bridge.isEnabled()).thenReturn(true);
+
+        relay.onNotificationsChanged(new NotificationsChangedEvent(PUSHES));
+
+        verify(bridge).publish(eq(NotificationPushRelay.CHANNEL),
+            eq(PUSHES.stream().map(NotificationPushRelay::encode).toList()));
+    }
+
+    @Test
+    void testOnNotificationsChangedDoesNothingWhenDisabled() {
+        when(bridge.isEnabled()).thenReturn(false);
+
+        relay.onNotificationsChanged(new NotificationsChangedEvent(PUSHES));
+
+        verify(bridge, never()).publish(anyString(), anyCollection());
+    }
+
+    @Test
+    void testOnMessageEvictsCountersAndPushesLocally() {
+        String payload = NotificationPushRelay.encode(new NotificationPush(USER_ID, NOTIFICATION_ID));
+
+        relay.onMessage(payload);
+
+        verify(notificationCounterService).evictCached(eq(USER_ID));
+        verify(notificationCounterService, never()).applyBroadcastCreated(any());
+        verify(notificationStreamService).push(eq(List.of(new NotificationPush(USER_ID, NOTIFICATION_ID))));
+    }
+
+    @Test
+    void testOnMessageRaisesCachedCountsForBroadcasts() {
+        relay.onMessage(NotificationPushRelay.encode(NotificationPush.broadcast(NOTIFICATION_ID)));
+
+        verify(notificationCounterService).applyBroadcastCreated(eq(NOTIFICATION_ID));
+        verify(notificationStreamService).push(eq(List.of(NotificationPush.broadcast(NOTIFICATION_ID))));
+    }
+
+    @Test
+    void testOnMessageAppliesCourseFanOuts() {
+        NotificationPush push = NotificationPush.courseFanOut(COURSE_ID, NOTIFICATION_ID);
+
+        relay.onMessage(NotificationPushRelay.encode(push));
+
+        verify(notificationCounterService).applyCourseFanOut(eq(COURSE_ID), eq(NOTIFICATION_ID));
+        verify(notificationCounterService, never()).applyBroadcastCreated(any());
+        verify(notificationStreamService).push(eq(List.of(push)));
+    }
+
+}
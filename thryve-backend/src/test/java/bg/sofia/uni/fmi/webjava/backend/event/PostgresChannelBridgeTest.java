@@ -0,0 +1,104 @@
+package bg.sofia.uni.fmi.webjava.backend.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class PostgresChannelBridgeTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSourceProperties dataSourceProperties;
+
+    @InjectMocks
+    private PostgresChannelBridge bridge;
+
+    private static final String CHANNEL = "test_channel";
+
+    @Test
+    void testPublishPacksEntriesIntoOnePayload() {
+        bridge.publish(CHANNEL, List.of("a", "b", "c"));
+
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(CHANNEL), eq("a;b;c"));
+    }
+
+    @Test
+    void testPublishSplitsPayloadsOverLimit() {
+        String entry = "x".repeat(1000);
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            entries.add(entry);
+        }
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+
+        bridge.publish(CHANNEL, entries);
+
+        verify(jdbcTemplate, times(3))
+            .query(anyString(), any(RowCallbackHandler.class), eq(CHANNEL), payloads.capture());
+        assertTrue(payloads.getAllValues().stream()
+            .allMatch(payload -> payload.toString().length() <= PostgresChannelBridge.MAX_PAYLOAD_BYTES));
+        assertEquals(20, payloads.getAllValues().stream()
+            .mapToInt(payload -> payload.toString().split(PostgresChannelBridge.ENTRY_SEPARATOR).length)
+            .sum());
+    }
+
+    @Test
+    void testPublishNothingForNoEntries() {
+        bridge.publish(CHANNEL, List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testPublishRejectsOversizedEntry() {
+        assertThrows(IllegalArgumentException.class,
+            () -> bridge.publish(CHANNEL, List.of("x".repeat(PostgresChannelBridge.MAX_PAYLOAD_BYTES + 1))));
+    }
+
+    @Test
+    void testInvalidChannelNameIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> bridge.publish("bad; drop table users", List.of("a")));
+        assertThrows(IllegalArgumentException.class, () -> bridge.subscribe("Bad-Channel", payload -> { }));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDispatchInvokesEveryHandlerDespiteFailures() {
+        Consumer<String> failing = mock(Consumer.class);
+        Consumer<String> handler = mock(Consumer.class);
+        doThrow(new IllegalStateException("boom")).when(failing).accept(anyString());
+        bridge.subscribe(CHANNEL, failing);
+        bridge.subscribe(CHANNEL, handler);
+
+        bridge.dispatch(CHANNEL, "payload");
+
+        verify(failing).accept(eq("payload"));
+        verify(handler).accept(eq("payload"));
+    }
+
+}
@@ -0,0 +1,97 @@
+package bg.sofia.uni.fmi.webjava.backend.init;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SchemaIndexVerifierTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @InjectMocks
+    private SchemaIndexVerifier schemaIndexVerifier;
+
+    private DatabaseMetaData metaData;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(schemaIndexVerifier, "enabled", true);
+        metaData = mock();
+    }
+
+    @Test
+    void testVerifyPassesWhenAllIndexesExist() throws SQLException {
+        stubIndexes(SchemaIndexVerifier.EXPECTED_INDEXES);
+
+        assertDoesNotThrow(() -> schemaIndexVerifier.verify());
+    }
+
+    @Test
+    void testVerifyFailsListingMissingIndexes() throws SQLException {
+        Map<String, List<String>> present = new TreeMap<>(SchemaIndexVerifier.EXPECTED_INDEXES);
+        present.put("sections", List.of());
+        stubIndexes(present);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+            () -> schemaIndexVerifier.verify());
+
+        assertTrue(exception.getMessage().contains("sections.idx_sections_course_order"));
+        assertFalse(exception.getMessage().contains("resources.idx_resources_section"));
+    }
+
+    @Test
+    void testVerifySkippedWhenDisabled() throws SQLException {
+        ReflectionTestUtils.setField(schemaIndexVerifier, "enabled", false);
+
+        schemaIndexVerifier.verify();
+
+        verifyNoInteractions(dataSource);
+    }
+
+    private void stubIndexes(Map<String, List<String>> indexesByTable) throws SQLException {
+        Connection connection = mock();
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        for (Map.Entry<String, List<String>> entry : indexesByTable.entrySet()) {
+            ResultSet indexInfo = mock();
+            List<String> indexes = entry.getValue();
+            OngoingStubbing<Boolean> next = when(indexInfo.next());
+            for (int i = 0; i < indexes.size(); i++) {
+                next = next.thenReturn(true);
+            }
+            next.thenReturn(false);
+            if (!indexes.isEmpty()) {
+                OngoingStubbing<String> names = when(indexInfo.getString("INDEX_NAME"));
+                for (String index : indexes) {
+                    names = names.thenReturn(index.toUpperCase());
+                }
+            }
+            when(metaData.getIndexInfo(null, null, entry.getKey(), false, true)).thenReturn(indexInfo);
+        }
+    }
+
+}
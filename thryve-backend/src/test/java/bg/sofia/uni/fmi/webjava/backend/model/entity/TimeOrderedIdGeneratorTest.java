@@ -0,0 +1,51 @@
+package bg.sofia.uni.fmi.webjava.backend.model.entity;
+
+import org.hibernate.generator.EventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeOrderedIdGeneratorTest {
+
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+    @Test
+    void testGeneratedIdsIncreaseInUuidByteOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Object id = generator.generate(null, null, null, EventType.INSERT);
+            assertInstanceOf(UUID.class, id);
+            ids.add(id.toString());
+        }
+
+        // Postgres compares uuid values byte by byte, which is the order of their canonical strings
+        List<String> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        assertEquals(sorted, ids);
+        assertEquals(ids.size(), ids.stream().distinct().count());
+    }
+
+    @Test
+    void testGeneratedIdsStartWithTheCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = TimeOrderedIdGenerator.nextId();
+        long after = System.currentTimeMillis();
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    void testGeneratesOnInsertOnly() {
+        assertTrue(generator.getEventTypes().contains(EventType.INSERT));
+        assertFalse(generator.getEventTypes().contains(EventType.UPDATE));
+    }
+
+}
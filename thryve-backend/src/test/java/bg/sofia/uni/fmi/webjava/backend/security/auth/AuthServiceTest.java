@@ -0,0 +1,169 @@
+package bg.sofia.uni.fmi.webjava.backend.security.auth;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.InvalidRefreshTokenException;
+import bg.sofia.uni.fmi.webjava.backend.exception.TooManyLoginAttemptsException;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserLoginDto;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.JwtService;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.RefreshTokenGrant;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.RefreshTokenRequest;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.RefreshTokenService;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.TokenPair;
+import bg.sofia.uni.fmi.webjava.backend.security.jwt.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthServiceTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @InjectMocks
+    private AuthService authService;
+
+    private static final String EMAIL = "test@example.com";
+    private static final String CLIENT_IP = "127.0.0.1";
+    private static final String REFRESH_TOKEN = "refresh";
+    private static final Claims CLAIMS = Jwts.claims().subject(EMAIL).build();
+    private static final UserDetails USER = new User(EMAIL, "password", List.of());
+    private static final RefreshTokenGrant PRESENTED = new RefreshTokenGrant(UUID.randomUUID(), UUID.randomUUID());
+    private static final RefreshTokenGrant NEXT = new RefreshTokenGrant(PRESENTED.familyId(), UUID.randomUUID());
+    private static final TokenPair TOKEN_PAIR = new TokenPair("access", "next-refresh");
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testLoginStartsTokenFamily() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(USER, null, List.of());
+        when(authenticationManager.authenticate(any())).thenReturn(authentication);
+        when(refreshTokenService.start(eq(EMAIL))).thenReturn(PRESENTED);
+        when(jwtService.generateTokenPair(eq(authentication), eq(PRESENTED))).thenReturn(TOKEN_PAIR);
+
+        TokenPair result = authService.login(loginDto(), CLIENT_IP);
+
+        assertEquals(TOKEN_PAIR, result);
+        verify(loginAttemptLimiter).recordSuccess(eq(EMAIL));
+    }
+
+    @Test
+    void testLoginWithBadCredentialsRecordsFailure() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class, () -> authService.login(loginDto(), CLIENT_IP));
+
+        verify(loginAttemptLimiter).recordFailure(eq(EMAIL), eq(CLIENT_IP));
+        verify(refreshTokenService, never()).start(any());
+    }
+
+    @Test
+    void testLoginWhenThrottledSkipsAuthentication() {
+        when(loginAttemptLimiter.isBlocked(eq(EMAIL), eq(CLIENT_IP))).thenReturn(true);
+        when(loginAttemptLimiter.secondsUntilReset()).thenReturn(60L);
+
+        TooManyLoginAttemptsException exception = assertThrows(TooManyLoginAttemptsException.class,
+            () -> authService.login(loginDto(), CLIENT_IP));
+
+        assertEquals(60L, exception.getRetryAfterSeconds());
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    void testRefreshTokenRotates() {
+        when(jwtService.extractClaims(eq(REFRESH_TOKEN))).thenReturn(CLAIMS);
+        when(jwtService.isRefreshToken(eq(CLAIMS))).thenReturn(true);
+        when(jwtService.extractRefreshTokenGrant(eq(CLAIMS))).thenReturn(PRESENTED);
+        when(userDetailsService.loadUserByUsername(eq(EMAIL))).thenReturn(USER);
+        when(refreshTokenService.rotate(eq(PRESENTED))).thenReturn(Optional.of(NEXT));
+        when(jwtService.generateTokenPair(any(), eq(NEXT))).thenReturn(TOKEN_PAIR);
+
+        TokenPair result = authService.refreshToken(new RefreshTokenRequest(REFRESH_TOKEN));
+
+        assertEquals(TOKEN_PAIR, result);
+    }
+
+    @Test
+    void testRefreshTokenRejectsReusedToken() {
+        when(jwtService.extractClaims(eq(REFRESH_TOKEN))).thenReturn(CLAIMS);
+        when(jwtService.isRefreshToken(eq(CLAIMS))).thenReturn(true);
+        when(jwtService.extractRefreshTokenGrant(eq(CLAIMS))).thenReturn(PRESENTED);
+        when(userDetailsService.loadUserByUsername(eq(EMAIL))).thenReturn(USER);
+        when(refreshTokenService.rotate(eq(PRESENTED))).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(InvalidRefreshTokenException.class,
+            () -> authService.refreshToken(new RefreshTokenRequest(REFRESH_TOKEN)));
+
+        assertEquals(AuthService.INVALID_REFRESH_TOKEN_MESSAGE, exception.getMessage());
+        verify(jwtService, never()).generateTokenPair(any(), any());
+    }
+
+    @Test
+    void testRefreshTokenRejectsAccessToken() {
+        when(jwtService.extractClaims(eq(REFRESH_TOKEN))).thenReturn(CLAIMS);
+        when(jwtService.isRefreshToken(eq(CLAIMS))).thenReturn(false);
+
+        assertThrows(InvalidRefreshTokenException.class,
+            () -> authService.refreshToken(new RefreshTokenRequest(REFRESH_TOKEN)));
+
+        verify(refreshTokenService, never()).rotate(any());
+    }
+
+    @Test
+    void testRevokeAllSessions() {
+        authService.revokeAllSessions(EMAIL);
+
+        verify(refreshTokenService).revokeAll(eq(EMAIL));
+        verify(tokenRevocationService).revokeSubject(eq(EMAIL));
+    }
+
+    private static UserLoginDto loginDto() {
+        UserLoginDto userLoginDto = new UserLoginDto();
+        userLoginDto.setEmail(EMAIL);
+        userLoginDto.setPassword("password");
+        return userLoginDto;
+    }
+
+}
@@ -0,0 +1,117 @@
+package bg.sofia.uni.fmi.webjava.backend.security.auth;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.PasswordHashingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        boundedPasswordEncoder.destroy();
+    }
+
+    @Test
+    void testEncodesAndMatchesOnExecutor() {
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 5000);
+
+        String encoded = boundedPasswordEncoder.encode("Secret123");
+
+        assertTrue(boundedPasswordEncoder.matches("Secret123", encoded));
+        assertFalse(boundedPasswordEncoder.matches("Wrong123", encoded));
+    }
+
+    @Test
+    void testUpgradeEncodingWhenStrengthIncreases() {
+        String weak = new BCryptPasswordEncoder(4).encode("Secret123");
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, 5000);
+
+        assertTrue(boundedPasswordEncoder.upgradeEncoding(weak));
+        assertFalse(boundedPasswordEncoder.upgradeEncoding(boundedPasswordEncoder.encode("Secret123")));
+    }
+
+    @Test
+    void testEncodeAllDoesNotOverflowQueue() {
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 2, 5000);
+        List<String> passwords = IntStream.range(0, 20).mapToObj(i -> "Secret" + i).toList();
+
+        List<String> encoded = boundedPasswordEncoder.encodeAll(passwords);
+
+        assertEquals(passwords.size(), encoded.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(boundedPasswordEncoder.matches(passwords.get(i), encoded.get(i)));
+        }
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        boundedPasswordEncoder = new BoundedPasswordEncoder(blocking, 1, 1, 5000);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("a"));
+        started.await();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> boundedPasswordEncoder.encode("b"));
+        while (!queued.isDone() && !hasQueuedTask()) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> boundedPasswordEncoder.encode("c"));
+
+        release.countDown();
+        running.get();
+        queued.get();
+    }
+
+    @Test
+    void testTimesOutWhenHashingTakesTooLong() {
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        boundedPasswordEncoder = new BoundedPasswordEncoder(slow, 1, 1, 50);
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> boundedPasswordEncoder.encode("a"));
+    }
+
+    private boolean hasQueuedTask() {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(boundedPasswordEncoder, "executor");
+        return !executor.getQueue().isEmpty();
+    }
+
+}
@@ -0,0 +1,92 @@
+package bg.sofia.uni.fmi.webjava.backend.security.auth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoginAttemptLimiterTest {
+
+    private static final String EMAIL = "test@example.com";
+    private static final String IP = "10.0.0.1";
+
+    private LoginAttemptLimiter loginAttemptLimiter;
+
+    @BeforeEach
+    void setUp() {
+        // a fixed seed keeps the test keys in separate stripes on every run
+        loginAttemptLimiter = new LoginAttemptLimiter(0);
+        ReflectionTestUtils.setField(loginAttemptLimiter, "stripes", 1024);
+        ReflectionTestUtils.setField(loginAttemptLimiter, "windowSeconds", 900L);
+        ReflectionTestUtils.setField(loginAttemptLimiter, "maxFailuresPerAccount", 3);
+        ReflectionTestUtils.setField(loginAttemptLimiter, "maxFailuresPerIp", 5);
+        ReflectionTestUtils.setField(loginAttemptLimiter, "perIpEnabled", true);
+        loginAttemptLimiter.init();
+    }
+
+    @Test
+    void testAccountIsBlockedAfterMaxFailures() {
+        for (int i = 0; i < 2; i++) {
+            loginAttemptLimiter.recordFailure(EMAIL, IP);
+        }
+        assertFalse(loginAttemptLimiter.isBlocked(EMAIL, IP));
+
+        loginAttemptLimiter.recordFailure(" Test@Example.com ", IP);
+
+        assertTrue(loginAttemptLimiter.isBlocked(EMAIL, "10.0.0.2"));
+    }
+
+    @Test
+    void testSuccessResetsAccountButNotAddress() {
+        for (int i = 0; i < 3; i++) {
+            loginAttemptLimiter.recordFailure(EMAIL, IP);
+        }
+
+        loginAttemptLimiter.recordSuccess(EMAIL);
+
+        assertFalse(loginAttemptLimiter.isBlocked(EMAIL, "10.0.0.2"));
+    }
+
+    @Test
+    void testAddressIsBlockedAcrossAccounts() {
+        for (int i = 0; i < 5; i++) {
+            loginAttemptLimiter.recordFailure("user" + i + "@example.com", IP);
+        }
+
+        assertTrue(loginAttemptLimiter.isBlocked("other@example.com", IP));
+        assertFalse(loginAttemptLimiter.isBlocked("other@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    void testAddressIsNotLimitedWhenPerIpLimitingIsOff() {
+        ReflectionTestUtils.setField(loginAttemptLimiter, "perIpEnabled", false);
+        for (int i = 0; i < 5; i++) {
+            loginAttemptLimiter.recordFailure("user" + i + "@example.com", IP);
+        }
+
+        assertFalse(loginAttemptLimiter.isBlocked("other@example.com", IP));
+    }
+
+    @Test
+    void testConcurrentFailuresAreAllCounted() throws InterruptedException {
+        ReflectionTestUtils.setField(loginAttemptLimiter, "maxFailuresPerAccount", 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 999; i++) {
+            executor.execute(() -> loginAttemptLimiter.recordFailure(EMAIL, IP));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertFalse(loginAttemptLimiter.isBlocked(EMAIL, "10.0.0.2"));
+
+        loginAttemptLimiter.recordFailure(EMAIL, IP);
+
+        assertTrue(loginAttemptLimiter.isBlocked(EMAIL, "10.0.0.2"));
+    }
+
+}
@@ -0,0 +1,96 @@
+package bg.sofia.uni.fmi.webjava.backend.security.config;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingPreAuthorizeAuthorizationManagerTest {
+
+    @Mock
+    private AuthorizationManager<MethodInvocation> delegate;
+
+    @Mock
+    private MethodInvocation invocation;
+
+    private CachingPreAuthorizeAuthorizationManager manager;
+
+    private static final Authentication STANDARD = authentication("ROLE_STANDARD");
+    private static final Authentication ADMIN = authentication("ROLE_ADMIN");
+
+    @BeforeEach
+    void setUp() {
+        manager = new CachingPreAuthorizeAuthorizationManager(delegate);
+    }
+
+    @Test
+    void testRoleOnlyDecisionIsEvaluatedOncePerAuthoritySet() throws Exception {
+        when(invocation.getMethod()).thenReturn(Endpoints.class.getMethod("adminOnly"));
+        when(delegate.authorize(any(), any())).thenReturn(new AuthorizationDecision(false));
+
+        assertFalse(manager.authorize(() -> STANDARD, invocation).isGranted());
+        assertFalse(manager.authorize(() -> authentication("ROLE_STANDARD"), invocation).isGranted());
+
+        verify(delegate, times(1)).authorize(any(), any());
+    }
+
+    @Test
+    void testDifferentAuthoritySetsAreCachedSeparately() throws Exception {
+        when(invocation.getMethod()).thenReturn(Endpoints.class.getMethod("adminOnly"));
+        when(delegate.authorize(any(), any()))
+            .thenReturn(new AuthorizationDecision(false))
+            .thenReturn(new AuthorizationDecision(true));
+
+        assertFalse(manager.authorize(() -> STANDARD, invocation).isGranted());
+        assertTrue(manager.authorize(() -> ADMIN, invocation).isGranted());
+        assertTrue(manager.authorize(() -> ADMIN, invocation).isGranted());
+
+        verify(delegate, times(2)).authorize(any(), any());
+    }
+
+    @Test
+    void testExpressionUsingArgumentsIsNotCached() throws Exception {
+        when(invocation.getMethod()).thenReturn(Endpoints.class.getMethod("ownerOnly", String.class));
+        when(delegate.authorize(any(), any())).thenReturn(new AuthorizationDecision(true));
+
+        manager.authorize(() -> STANDARD, invocation);
+        manager.authorize(() -> STANDARD, invocation);
+
+        verify(delegate, times(2)).authorize(any(), any());
+    }
+
+    private static Authentication authentication(String role) {
+        return new UsernamePasswordAuthenticationToken("user", null, List.of(new SimpleGrantedAuthority(role)));
+    }
+
+    static class Endpoints {
+
+        @PreAuthorize("hasAnyRole('CREATOR', 'ADMIN')")
+        public void adminOnly() {
+        }
+
+        @PreAuthorize("#email == authentication.name")
+        public void ownerOnly(String email) {
+        }
+
+    }
+
+}
@@ -0,0 +1,166 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtKeyringTest {
+
+    private static final String SECRET = "dGhpc2lzYXZlcnlsb25nc2VjcmV0a2V5Zm9ydGVzdGluZ3B1cnBvc2VzMTIzNDU2Nzg5MA==";
+    private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    private static final UserDetails TEST_USER = new User("test@example.com", "password",
+        List.of(new SimpleGrantedAuthority("ROLE_STANDARD")));
+    private static final Authentication TEST_AUTHENTICATION =
+        new UsernamePasswordAuthenticationToken(TEST_USER, null, TEST_USER.getAuthorities());
+
+    private static KeyPair rsaKeyPair;
+    private static KeyPair edKeyPair;
+
+    @BeforeAll
+    static void generateKeys() throws GeneralSecurityException {
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        rsaKeyPair = rsaGenerator.generateKeyPair();
+        edKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    }
+
+    @Test
+    void testActiveKeySignsWithKeyIdAndVerifies() {
+        JwtService jwtService = createJwtService(new JwtKeyring("k1", edKeyPair.getPrivate(),
+            Map.of("k1", edKeyPair.getPublic())));
+
+        String token = jwtService.generateAccessToken(TEST_AUTHENTICATION);
+
+        assertEquals("k1", Jwts.parser().verifyWith(edKeyPair.getPublic()).build()
+            .parseSignedClaims(token).getHeader().getKeyId());
+        assertEquals("test@example.com", jwtService.extractClaims(token).getSubject());
+    }
+
+    @Test
+    void testTokensOfPreviousKeyVerifyAfterRotation() {
+        JwtService before = createJwtService(new JwtKeyring("k1", rsaKeyPair.getPrivate(),
+            Map.of("k1", rsaKeyPair.getPublic())));
+        JwtService after = createJwtService(new JwtKeyring("k2", edKeyPair.getPrivate(),
+            Map.of("k1", rsaKeyPair.getPublic(), "k2", edKeyPair.getPublic())));
+
+        Claims claims = after.extractClaims(before.generateAccessToken(TEST_AUTHENTICATION));
+
+        assertEquals("test@example.com", claims.getSubject());
+    }
+
+    @Test
+    void testTokensOfRetiredKeyAreRejected() {
+        JwtService before = createJwtService(new JwtKeyring("k1", rsaKeyPair.getPrivate(),
+            Map.of("k1", rsaKeyPair.getPublic())));
+        JwtService after = createJwtService(new JwtKeyring("k2", edKeyPair.getPrivate(),
+            Map.of("k2", edKeyPair.getPublic())));
+
+        String token = before.generateAccessToken(TEST_AUTHENTICATION);
+
+        assertNull(after.extractClaims(token));
+    }
+
+    @Test
+    void testLegacySecretTokensVerifyAfterSwitchingToKeystore() {
+        JwtService legacy = createJwtService(JwtKeyring.ofSecret(SECRET_KEY));
+        String token = legacy.generateAccessToken(TEST_AUTHENTICATION);
+        JwtService current = createJwtService(legacyKeyring(Instant.now().plusSeconds(1)));
+
+        Claims claims = current.extractClaims(token);
+
+        assertEquals("test@example.com", claims.getSubject());
+    }
+
+    @Test
+    void testLegacySecretTokensIssuedAfterSwitchAreRejected() {
+        JwtService legacy = createJwtService(JwtKeyring.ofSecret(SECRET_KEY));
+        JwtService current = createJwtService(legacyKeyring(Instant.now().minus(Duration.ofMinutes(1))));
+
+        assertNull(current.extractClaims(legacy.generateAccessToken(TEST_AUTHENTICATION)));
+    }
+
+    @Test
+    void testLegacySecretTokensOlderThanTokenLifetimeAreRejected() {
+        Instant issuedAt = Instant.now().minus(Duration.ofHours(2));
+        String token = Jwts.builder()
+            .subject("test@example.com")
+            .issuedAt(Date.from(issuedAt))
+            .expiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+            .signWith(SECRET_KEY)
+            .compact();
+        JwtService current = createJwtService(legacyKeyring(Instant.now()));
+
+        assertNull(current.extractClaims(token));
+    }
+
+    @Test
+    void testKidLessTokensAreRejectedWithoutSecret() {
+        JwtService legacy = createJwtService(JwtKeyring.ofSecret(SECRET_KEY));
+        JwtService current = createJwtService(new JwtKeyring("k1", edKeyPair.getPrivate(),
+            Map.of("k1", edKeyPair.getPublic())));
+
+        assertNull(current.extractClaims(legacy.generateAccessToken(TEST_AUTHENTICATION)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testJwksListsVerificationKeys() {
+        JwtKeyring keyring = new JwtKeyring("k2", edKeyPair.getPrivate(),
+            Map.of("k1", rsaKeyPair.getPublic(), "k2", edKeyPair.getPublic()));
+
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) keyring.getJwks().get("keys");
+
+        assertEquals(2, keys.size());
+        Map<String, Object> rsaJwk = keys.stream().filter(key -> "k1".equals(key.get("kid"))).findFirst().orElseThrow();
+        assertEquals("RSA", rsaJwk.get("kty"));
+        assertEquals("RS256", rsaJwk.get("alg"));
+        assertEquals("sig", rsaJwk.get("use"));
+        assertNull(rsaJwk.get("d"));
+    }
+
+    @Test
+    void testUnsupportedKeyTypeIsRejected() throws GeneralSecurityException {
+        KeyPair ecKeyPair = KeyPairGenerator.getInstance("EC").generateKeyPair();
+
+        assertThrows(IllegalStateException.class,
+            () -> new JwtKeyring("k1", ecKeyPair.getPrivate(), Map.of("k1", ecKeyPair.getPublic())));
+    }
+
+    private static JwtKeyring legacyKeyring(Instant issuedBefore) {
+        return new JwtKeyring("k1", edKeyPair.getPrivate(), Map.of("k1", edKeyPair.getPublic()), SECRET_KEY,
+            issuedBefore, Duration.ofHours(1));
+    }
+
+    private static JwtService createJwtService(JwtKeyring keyring) {
+        JwtService jwtService = new JwtService(keyring);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpirationMs", 120_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", 100L);
+        jwtService.init();
+        return jwtService;
+    }
+
+}
@@ -0,0 +1,90 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtServiceTest {
+
+    private static final String SECRET = "dGhpc2lzYXZlcnlsb25nc2VjcmV0a2V5Zm9ydGVzdGluZ3B1cnBvc2VzMTIzNDU2Nzg5MA==";
+    private static final UserDetails TEST_USER = new User("test@example.com", "password",
+        List.of(new SimpleGrantedAuthority("ROLE_STANDARD")));
+    private static final Authentication TEST_AUTHENTICATION =
+        new UsernamePasswordAuthenticationToken(TEST_USER, null, TEST_USER.getAuthorities());
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(JwtKeyring.ofSecret(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))));
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpirationMs", 120_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", 100L);
+        jwtService.init();
+    }
+
+    @Test
+    void testExtractClaimsFromAccessToken() {
+        String token = jwtService.generateAccessToken(TEST_AUTHENTICATION);
+
+        Claims claims = jwtService.extractClaims(token);
+
+        assertNotNull(claims);
+        assertEquals(TEST_USER.getUsername(), claims.getSubject());
+        assertEquals(List.of("ROLE_STANDARD"), claims.get("roles", List.class));
+        assertTrue(jwtService.validateClaims(claims, TEST_USER));
+        assertFalse(jwtService.isRefreshToken(token));
+    }
+
+    @Test
+    void testExtractClaimsIsServedFromCache() {
+        String token = jwtService.generateAccessToken(TEST_AUTHENTICATION);
+
+        assertSame(jwtService.extractClaims(token), jwtService.extractClaims(token));
+    }
+
+    @Test
+    void testExtractClaimsRejectsTamperedToken() {
+        String token = jwtService.generateAccessToken(TEST_AUTHENTICATION);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(jwtService.extractClaims(tampered));
+        assertNull(jwtService.extractUsernameFromToken("not-a-token"));
+    }
+
+    @Test
+    void testRefreshTokenIsRecognized() {
+        RefreshTokenGrant grant = new RefreshTokenGrant(UUID.randomUUID(), UUID.randomUUID());
+        String token = jwtService.generateRefreshToken(TEST_AUTHENTICATION, grant);
+
+        assertTrue(jwtService.isRefreshToken(token));
+        assertTrue(jwtService.validateToken(token, TEST_USER));
+        assertEquals(grant, jwtService.extractRefreshTokenGrant(jwtService.extractClaims(token)));
+    }
+
+    @Test
+    void testAccessTokenHasNoRefreshTokenGrant() {
+        String token = jwtService.generateAccessToken(TEST_AUTHENTICATION);
+
+        assertNull(jwtService.extractRefreshTokenGrant(jwtService.extractClaims(token)));
+    }
+
+}
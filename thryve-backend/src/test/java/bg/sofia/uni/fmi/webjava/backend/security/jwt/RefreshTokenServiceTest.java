@@ -0,0 +1,145 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.RefreshTokenFamily;
+import bg.sofia.uni.fmi.webjava.backend.repository.RefreshTokenFamilyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenFamilyRepository refreshTokenFamilyRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private static final String SUBJECT = "test@example.com";
+    private static final RefreshTokenGrant PRESENTED = new RefreshTokenGrant(UUID.randomUUID(), UUID.randomUUID());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationMs", 604_800_000L);
+        ReflectionTestUtils.setField(refreshTokenService, "revokedIndexSize", 100L);
+        ReflectionTestUtils.setField(refreshTokenService, "reuseGraceMs", 10_000L);
+        refreshTokenService.init();
+    }
+
+    @Test
+    void testStartCreatesFamily() {
+        UUID familyId = UUID.randomUUID();
+        when(refreshTokenFamilyRepository.save(any(RefreshTokenFamily.class))).thenAnswer(invocation -> {
+            RefreshTokenFamily family = invocation.getArgument(0);
+            family.setId(familyId);
+            return family;
+        });
+
+        RefreshTokenGrant grant = refreshTokenService.start(SUBJECT);
+
+        assertEquals(familyId, grant.familyId());
+    }
+
+    @Test
+    void testRotateIssuesNextToken() {
+        when(refreshTokenFamilyRepository.rotate(eq(PRESENTED.familyId()), eq(PRESENTED.tokenId()), any(), any()))
+            .thenReturn(1);
+
+        Optional<RefreshTokenGrant> next = refreshTokenService.rotate(PRESENTED);
+
+        assertTrue(next.isPresent());
+        assertEquals(PRESENTED.familyId(), next.get().familyId());
+        assertNotEquals(PRESENTED.tokenId(), next.get().tokenId());
+        verify(refreshTokenFamilyRepository, never()).revoke(any());
+    }
+
+    @Test
+    void testRotateWithReusedTokenRevokesFamily() {
+        when(refreshTokenFamilyRepository.rotate(eq(PRESENTED.familyId()), eq(PRESENTED.tokenId()), any(), any()))
+            .thenReturn(0);
+        when(refreshTokenFamilyRepository.findById(eq(PRESENTED.familyId())))
+            .thenReturn(Optional.of(family(UUID.randomUUID(), LocalDateTime.now().minusMinutes(1))));
+        when(refreshTokenFamilyRepository.revoke(eq(PRESENTED.familyId()))).thenReturn(1);
+
+        assertTrue(refreshTokenService.rotate(PRESENTED).isEmpty());
+        // the revoked family is now rejected from memory
+        assertTrue(refreshTokenService.rotate(new RefreshTokenGrant(PRESENTED.familyId(), UUID.randomUUID())).isEmpty());
+
+        verify(refreshTokenFamilyRepository).revoke(eq(PRESENTED.familyId()));
+        verify(refreshTokenFamilyRepository).rotate(any(), any(), any(), any());
+    }
+
+    @Test
+    void testRotateWithJustRotatedTokenReturnsSuccessor() {
+        RefreshTokenFamily family = family(PRESENTED.tokenId(), LocalDateTime.now().minusSeconds(1));
+        when(refreshTokenFamilyRepository.rotate(eq(PRESENTED.familyId()), eq(PRESENTED.tokenId()), any(), any()))
+            .thenReturn(0);
+        when(refreshTokenFamilyRepository.findById(eq(PRESENTED.familyId()))).thenReturn(Optional.of(family));
+
+        Optional<RefreshTokenGrant> next = refreshTokenService.rotate(PRESENTED);
+
+        assertEquals(Optional.of(new RefreshTokenGrant(PRESENTED.familyId(), family.getCurrentTokenId())), next);
+        verify(refreshTokenFamilyRepository, never()).revoke(any());
+    }
+
+    @Test
+    void testRotateWithExpiredFamilyIsNotTreatedAsReuse() {
+        RefreshTokenFamily family = family(UUID.randomUUID(), LocalDateTime.now().minusDays(8));
+        family.setExpiresAt(LocalDateTime.now().minusDays(1));
+        when(refreshTokenFamilyRepository.rotate(eq(PRESENTED.familyId()), eq(PRESENTED.tokenId()), any(), any()))
+            .thenReturn(0);
+        when(refreshTokenFamilyRepository.findById(eq(PRESENTED.familyId()))).thenReturn(Optional.of(family));
+
+        assertTrue(refreshTokenService.rotate(PRESENTED).isEmpty());
+
+        verify(refreshTokenFamilyRepository, never()).revoke(any());
+    }
+
+    @Test
+    void testRevokeAllRejectsFamiliesOfSubject() {
+        when(refreshTokenFamilyRepository.findActiveIdsBySubject(eq(SUBJECT))).thenReturn(List.of(PRESENTED.familyId()));
+
+        refreshTokenService.revokeAll(SUBJECT);
+
+        verify(refreshTokenFamilyRepository).revokeAllBySubject(eq(SUBJECT));
+        assertTrue(refreshTokenService.rotate(PRESENTED).isEmpty());
+        verify(refreshTokenFamilyRepository, never()).rotate(any(), any(), any(), any());
+    }
+
+    @Test
+    void testSyncRevocationsLoadsFamiliesRevokedElsewhere() {
+        when(refreshTokenFamilyRepository.findIdsRevokedSince(any())).thenReturn(List.of(PRESENTED.familyId()));
+
+        refreshTokenService.syncRevocations();
+
+        verify(refreshTokenFamilyRepository).deleteAllExpiredBefore(any());
+        assertTrue(refreshTokenService.rotate(PRESENTED).isEmpty());
+        verify(refreshTokenFamilyRepository, never()).rotate(any(), any(), any(), any());
+    }
+
+    private static RefreshTokenFamily family(UUID previousTokenId, LocalDateTime rotatedAt) {
+        RefreshTokenFamily family = new RefreshTokenFamily(SUBJECT, UUID.randomUUID(),
+            LocalDateTime.now().plusDays(7), false, previousTokenId, rotatedAt);
+        family.setId(PRESENTED.familyId());
+        return family;
+    }
+
+}
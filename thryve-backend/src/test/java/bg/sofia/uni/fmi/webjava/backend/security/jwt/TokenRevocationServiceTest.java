@@ -0,0 +1,127 @@
+package bg.sofia.uni.fmi.webjava.backend.security.jwt;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.TokenRevocation;
+import bg.sofia.uni.fmi.webjava.backend.repository.TokenRevocationRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    private static final String SUBJECT = "test@example.com";
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "jwtExpirationMs", 900_000L);
+    }
+
+    @Test
+    void testRevokeSubjectDeniesEarlierTokens() {
+        Claims issuedBefore = claims(SUBJECT, LocalDateTime.now().minusMinutes(1));
+
+        tokenRevocationService.revokeSubject(SUBJECT);
+
+        verify(tokenRevocationRepository).save(any(TokenRevocation.class));
+        assertTrue(tokenRevocationService.isRevoked(issuedBefore));
+        assertFalse(tokenRevocationService.isRevoked(claims(SUBJECT, LocalDateTime.now().plusMinutes(1))));
+        assertFalse(tokenRevocationService.isRevoked(claims("other@example.com", LocalDateTime.now())));
+    }
+
+    @Test
+    void testTokenIssuedInTheSecondOfTheRevocationIsKept() {
+        LocalDateTime revokedAt = LocalDateTime.now().withNano(500_000_000);
+        when(tokenRevocationRepository.findAllByRevokedAtAfter(any()))
+            .thenReturn(List.of(new TokenRevocation(SUBJECT, revokedAt)));
+
+        tokenRevocationService.refreshRevocations();
+
+        assertFalse(tokenRevocationService.isRevoked(claims(SUBJECT, revokedAt.withNano(0))));
+        assertTrue(tokenRevocationService.isRevoked(claims(SUBJECT, revokedAt.withNano(0).minusSeconds(1))));
+    }
+
+    @Test
+    void testRevokeSubjectIsAppliedAfterCommit() {
+        Claims issuedBefore = claims(SUBJECT, LocalDateTime.now().minusMinutes(1));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tokenRevocationService.revokeSubject(SUBJECT);
+
+            assertFalse(tokenRevocationService.isRevoked(issuedBefore));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(tokenRevocationService.isRevoked(issuedBefore));
+    }
+
+    @Test
+    void testRefreshRevocationsLoadsSharedDenyList() {
+        when(tokenRevocationRepository.findAllByRevokedAtAfter(any()))
+            .thenReturn(List.of(new TokenRevocation(SUBJECT, LocalDateTime.now())));
+
+        tokenRevocationService.refreshRevocations();
+
+        verify(tokenRevocationRepository).deleteAllRevokedBefore(any());
+        assertTrue(tokenRevocationService.isRevoked(claims(SUBJECT, LocalDateTime.now().minusMinutes(1))));
+    }
+
+    @Test
+    void testRefreshRevocationsKeepsLaterLocalRevocation() {
+        tokenRevocationService.revokeSubject(SUBJECT);
+        when(tokenRevocationRepository.findAllByRevokedAtAfter(any()))
+            .thenReturn(List.of(new TokenRevocation(SUBJECT, LocalDateTime.now().minusMinutes(5))));
+
+        tokenRevocationService.refreshRevocations();
+
+        assertTrue(tokenRevocationService.isRevoked(claims(SUBJECT, LocalDateTime.now().minusMinutes(1))));
+    }
+
+    @Test
+    void testRefreshRevocationsDropsExpiredRevocations() {
+        ReflectionTestUtils.setField(tokenRevocationService, "jwtExpirationMs", 3_600_000L);
+        when(tokenRevocationRepository.findAllByRevokedAtAfter(any()))
+            .thenReturn(List.of(new TokenRevocation(SUBJECT, LocalDateTime.now().minusMinutes(20))))
+            .thenReturn(List.of());
+        tokenRevocationService.refreshRevocations();
+        ReflectionTestUtils.setField(tokenRevocationService, "jwtExpirationMs", 900_000L);
+
+        tokenRevocationService.refreshRevocations();
+
+        assertFalse(tokenRevocationService.isRevoked(claims(SUBJECT, LocalDateTime.now().minusMinutes(30))));
+    }
+
+    private static Claims claims(String subject, LocalDateTime issuedAt) {
+        return Jwts.claims()
+            .subject(subject)
+            .issuedAt(Date.from(issuedAt.atZone(ZoneId.systemDefault()).toInstant()))
+            .build();
+    }
+
+}
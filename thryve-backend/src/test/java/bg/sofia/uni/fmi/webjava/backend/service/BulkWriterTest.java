@@ -0,0 +1,71 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Notification;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkWriterTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private BulkWriter bulkWriter;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkWriter, "batchSize", 2);
+    }
+
+    @Test
+    void testPersistAllFlushesAndDetachesEveryBatch() {
+        List<Notification> notifications = IntStream.range(0, 5).mapToObj(i -> {
+            Notification notification = new Notification();
+            notification.setTitle("Notification " + i);
+            return notification;
+        }).toList();
+
+        bulkWriter.persistAll(notifications);
+
+        InOrder inOrder = inOrder(entityManager);
+        inOrder.verify(entityManager).persist(notifications.get(0));
+        inOrder.verify(entityManager).persist(notifications.get(1));
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).detach(notifications.get(0));
+        inOrder.verify(entityManager).detach(notifications.get(1));
+        inOrder.verify(entityManager).persist(notifications.get(2));
+        inOrder.verify(entityManager).persist(notifications.get(3));
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).persist(notifications.get(4));
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).detach(notifications.get(4));
+        verify(entityManager, times(5)).detach(any());
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void testPersistAllWithNoEntities() {
+        bulkWriter.persistAll(List.of());
+
+        verifyNoInteractions(entityManager);
+    }
+
+}
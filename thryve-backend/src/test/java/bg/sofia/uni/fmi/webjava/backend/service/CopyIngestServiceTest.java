@@ -0,0 +1,163 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.EnrollmentType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CopyIngestServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ByteArrayOutputStream copied = new ByteArrayOutputStream();
+    private CopyIngestService copyIngestService;
+
+    @BeforeEach
+    void setUp() {
+        copyIngestService = new CopyIngestService(jdbcTemplate, entityManager, meterRegistry);
+    }
+
+    @Test
+    void testCopyStreamsRowsAsCsv() throws SQLException {
+        stubCopy("copy enrollments (id, type, note, created_at) from stdin with (format csv)");
+        when(copyIn.endCopy()).thenReturn(2L);
+        UUID id = UUID.randomUUID();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+        long rows = copyIngestService.copy("enrollments", List.of("id", "type", "note", "created_at"),
+            List.of(1, 2).iterator(), i -> i == 1
+                ? Arrays.asList(id, EnrollmentType.STUDENT, "say \"hi\", then\nleave", createdAt)
+                : Arrays.asList(id, null, "", createdAt));
+
+        assertEquals(2, rows);
+        assertEquals(id + ",STUDENT,\"say \"\"hi\"\", then\nleave\",2025-01-02T03:04:05\n"
+                + id + ",,\"\",2025-01-02T03:04:05\n",
+            copied.toString(StandardCharsets.UTF_8));
+        InOrder inOrder = inOrder(entityManager, jdbcTemplate);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(jdbcTemplate).execute(ArgumentMatchers.<ConnectionCallback<Long>>any());
+        assertEquals(2, meterRegistry.get("bulk.ingest.rows").tag("table", "enrollments").counter().count());
+        assertEquals(1, meterRegistry.get("bulk.ingest.duration").tag("table", "enrollments").timer().count());
+        assertEquals(1, meterRegistry.get("bulk.ingest.throughput").tag("table", "enrollments").summary().count());
+    }
+
+    @Test
+    void testCopyWritesLargeInputsInChunks() throws SQLException {
+        stubCopy("copy notifications (title) from stdin with (format csv)");
+        when(copyIn.endCopy()).thenReturn(10_000L);
+        String title = "x".repeat(100);
+
+        copyIngestService.copy("notifications", List.of("title"), IntStream.range(0, 10_000).iterator(),
+            i -> List.of(title));
+
+        verify(copyIn, atLeast(10)).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        assertEquals(10_000 * (title.length() + 3), copied.size());
+    }
+
+    @Test
+    void testCopyCancelsWhenRowsFail() throws SQLException {
+        stubCopy("copy notifications (title) from stdin with (format csv)");
+        when(copyIn.isActive()).thenReturn(true);
+        Iterator<String> failing = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public String next() {
+                throw new IllegalStateException("broken input");
+            }
+        };
+
+        assertThrows(IllegalStateException.class,
+            () -> copyIngestService.copy("notifications", List.of("title"), failing, List::of));
+
+        verify(copyIn).cancelCopy();
+    }
+
+    @Test
+    void testCopyRejectsInvalidIdentifiers() {
+        assertThrows(IllegalArgumentException.class, () -> copyIngestService.copy(
+            "notifications; drop table users", List.of("title"), List.of().iterator(), List::of));
+        assertThrows(IllegalArgumentException.class, () -> copyIngestService.copy(
+            "notifications", List.of("Title"), List.of().iterator(), List::of));
+
+        verifyNoInteractions(jdbcTemplate, entityManager);
+    }
+
+    @Test
+    void testCreateStagingTable() {
+        String stagingTable = copyIngestService.createStagingTable("enrollments");
+
+        assertEquals("enrollments_staging", stagingTable);
+        verify(jdbcTemplate).execute(
+            "create temporary table enrollments_staging (like enrollments including defaults) on commit drop");
+    }
+
+    private void stubCopy(String sql) throws SQLException {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Long>>any())).thenAnswer(invocation ->
+            invocation.<ConnectionCallback<Long>>getArgument(0).doInConnection(connection));
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(sql)).thenReturn(copyIn);
+        lenient().doAnswer(invocation -> {
+            byte[] bytes = invocation.getArgument(0);
+            copied.write(bytes, invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+    }
+
+}
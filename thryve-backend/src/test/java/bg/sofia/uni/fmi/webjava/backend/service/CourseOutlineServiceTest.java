@@ -0,0 +1,114 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
+import bg.sofia.uni.fmi.webjava.backend.mapper.AssignmentDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.mapper.CourseDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.mapper.SectionDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.assignment.AssignmentResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseOutlineDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.course.CourseOutlineVersion;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.section.SectionResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Assignment;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Section;
+import bg.sofia.uni.fmi.webjava.backend.repository.AssignmentRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.CourseRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.SectionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestAssignment;
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestAssignmentResponseDto;
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestCourse;
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestSection;
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestSectionResponseDto;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CourseOutlineServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private SectionRepository sectionRepository;
+
+    @Mock
+    private AssignmentRepository assignmentRepository;
+
+    @Mock
+    private CourseDtoMapper courseDtoMapper;
+
+    @Mock
+    private SectionDtoMapper sectionDtoMapper;
+
+    @Mock
+    private AssignmentDtoMapper assignmentDtoMapper;
+
+    @InjectMocks
+    private CourseOutlineService courseOutlineService;
+
+    private static final UUID COURSE_ID = UUID.randomUUID();
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @Test
+    void testGetCourseOutline() {
+        Course course = createTestCourse();
+        Section section = createTestSection();
+        Assignment assignment = createTestAssignment();
+        SectionResponseDto sectionResponseDto = createTestSectionResponseDto();
+        AssignmentResponseDto assignmentResponseDto = createTestAssignmentResponseDto();
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(course));
+        when(courseDtoMapper.mapCourseToOutlineDto(course)).thenReturn(new CourseOutlineDto());
+        when(sectionRepository.findAllWithResourcesByCourseIdOrderByOrderNumber(COURSE_ID))
+            .thenReturn(List.of(section));
+        when(assignmentRepository.findAllByCourseIdOrderByCreatedAt(COURSE_ID)).thenReturn(List.of(assignment));
+        when(sectionDtoMapper.mapToResponseDto(section)).thenReturn(sectionResponseDto);
+        when(assignmentDtoMapper.mapToResponseDto(assignment)).thenReturn(assignmentResponseDto);
+
+        CourseOutlineDto outline = courseOutlineService.getCourseOutline(COURSE_ID);
+
+        assertEquals(List.of(sectionResponseDto), outline.getSections());
+        assertEquals(List.of(assignmentResponseDto), outline.getAssignments());
+    }
+
+    @Test
+    void testGetCourseOutlineNotFound() {
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> courseOutlineService.getCourseOutline(COURSE_ID));
+    }
+
+    @Test
+    void testGetCourseOutlineETagNotFound() {
+        when(courseRepository.findOutlineVersionById(COURSE_ID)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> courseOutlineService.getCourseOutlineETag(COURSE_ID));
+    }
+
+    @Test
+    void testETagUsesLatestUpdateAndCounts() {
+        CourseOutlineVersion version = new CourseOutlineVersion(UPDATED_AT, UPDATED_AT.plusMinutes(5), 2,
+            null, 0, UPDATED_AT.plusMinutes(1), 1);
+        when(courseRepository.findOutlineVersionById(COURSE_ID)).thenReturn(Optional.of(version));
+
+        String eTag = courseOutlineService.getCourseOutlineETag(COURSE_ID);
+
+        assertEquals(new CourseOutlineVersion(UPDATED_AT, null, 2, UPDATED_AT.plusMinutes(5), 0, null, 1).toETag(),
+            eTag);
+        assertNotEquals(new CourseOutlineVersion(UPDATED_AT, UPDATED_AT.plusMinutes(5), 1,
+            null, 0, UPDATED_AT.plusMinutes(1), 1).toETag(), eTag);
+    }
+
+}
@@ -51,7 +51,7 @@ public class CourseServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private NotificationService notificationService;
+    private NotificationOutboxService notificationOutboxService;
 
     @Mock
     private CourseDtoMapper courseDtoMapper;
@@ -114,7 +114,7 @@ public class CourseServiceTest {
         when(userRepository.findByEmail(eq(creator.getEmail()))).thenReturn(Optional.of(creator));
         when(courseDtoMapper.mapDtoToCourse(any(CourseCreateDto.class))).thenReturn(TEST_COURSE);
         when(courseRepository.save(eq(TEST_COURSE))).thenReturn(TEST_COURSE);
-        doNothing().when(notificationService).notifyAllUsersCourseCreated(any(), any());
+        doNothing().when(notificationOutboxService).enqueueCourseCreated(any(), any());
         when(courseDtoMapper.mapCourseToResponseDto(eq(TEST_COURSE))).thenReturn(TEST_COURSE_RESPONSE_DTO);
 
         CourseResponseDto result = courseService.createCourse(new CourseCreateDto(), creator.getEmail());
@@ -122,7 +122,7 @@ public class CourseServiceTest {
         verify(userRepository, times(1)).findByEmail(eq(creator.getEmail()));
         verify(courseDtoMapper, times(1)).mapDtoToCourse(any(CourseCreateDto.class));
         verify(courseRepository, times(1)).save(eq(TEST_COURSE));
-        verify(notificationService, times(1)).notifyAllUsersCourseCreated(eq(TEST_COURSE), eq(creator));
+        verify(notificationOutboxService, times(1)).enqueueCourseCreated(eq(TEST_COURSE), eq(creator));
         verify(courseDtoMapper, times(1)).mapCourseToResponseDto(eq(TEST_COURSE));
         assertEquals(TEST_COURSE_RESPONSE_DTO, result);
     }
@@ -140,8 +140,8 @@ public class CourseServiceTest {
         when(courseRepository.findById(eq(TEST_COURSE.getId()))).thenReturn(Optional.of(TEST_COURSE));
         when(userRepository.findByEmail(eq(TEST_USER.getEmail())))
             .thenReturn(Optional.of(createStandardTestUser()));
-        doNothing().when(notificationService)
-                   .notifyEnrolledUsersCourseUpdated(any(), any(), anyString());
+        doNothing().when(notificationOutboxService)
+                   .enqueueCourseUpdated(any(), any(), anyString());
         doNothing().when(courseDtoMapper)
                    .updateCourseFromDto(any(CourseUpdateDto.class), any(Course.class));
         when(courseRepository.save(eq(TEST_COURSE))).thenReturn(TEST_COURSE);
@@ -152,8 +152,8 @@ public class CourseServiceTest {
 
         verify(courseRepository, times(1)).findById(eq(TEST_COURSE.getId()));
         verify(userRepository, times(1)).findByEmail(eq(TEST_USER.getEmail()));
-        verify(notificationService, times(1))
-                   .notifyEnrolledUsersCourseUpdated(eq(TEST_COURSE), eq(TEST_USER), eq(COURSE_UPDATED_MESSAGE));
+        verify(notificationOutboxService, times(1))
+                   .enqueueCourseUpdated(eq(TEST_COURSE), eq(TEST_USER), eq(COURSE_UPDATED_MESSAGE));
         verify(courseDtoMapper, times(1))
                    .updateCourseFromDto(any(CourseUpdateDto.class), eq(TEST_COURSE));
         verify(courseRepository, times(1)).save(eq(TEST_COURSE));
@@ -2,11 +2,14 @@ package bg.sofia.uni.fmi.webjava.backend.service;
 
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityAlreadyExistsException;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
+import bg.sofia.uni.fmi.webjava.backend.exception.InvalidImportException;
 import bg.sofia.uni.fmi.webjava.backend.mapper.EnrollmentDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.ImportResultDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.enrollment.EnrollmentUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Enrollment;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.EnrollmentType;
 import bg.sofia.uni.fmi.webjava.backend.repository.EnrollmentRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,8 +21,14 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
 
 import static bg.sofia.uni.fmi.webjava.backend.service.EnrollmentService.ENROLLMENT_ALREADY_EXISTS_ERROR_MESSAGE;
 import static bg.sofia.uni.fmi.webjava.backend.service.EnrollmentService.ENROLLMENT_NOT_FOUND_ERROR_MESSAGE;
@@ -31,8 +40,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -52,6 +63,9 @@ public class EnrollmentServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private CopyIngestService copyIngestService;
+
     @InjectMocks
     private EnrollmentService enrollmentService;
 
@@ -263,4 +277,49 @@ public class EnrollmentServiceTest {
         assertEquals(TEST_ENROLLMENT_RESPONSE_DTO, result);
     }
 
+    @Test
+    void testImportEnrollmentsCopiesRecordsIntoStaging() {
+        UUID userId = UUID.randomUUID();
+        UUID instructorId = UUID.randomUUID();
+        UUID courseId = UUID.randomUUID();
+        String csv = "userId,courseId,enrollmentType\n"
+            + userId + "," + courseId + "\n"
+            + "\n"
+            + instructorId + ", " + courseId + ", instructor\n";
+        List<List<?>> copiedRows = new ArrayList<>();
+        when(copyIngestService.createStagingTable("enrollments")).thenReturn("enrollments_staging");
+        when(copyIngestService.copy(eq("enrollments_staging"), anyList(), any(), any())).thenAnswer(invocation -> {
+            Iterator<Object> rows = invocation.getArgument(2);
+            Function<Object, List<?>> toValues = invocation.getArgument(3);
+            rows.forEachRemaining(row -> copiedRows.add(toValues.apply(row)));
+            return (long) copiedRows.size();
+        });
+        when(enrollmentRepository.insertStaged()).thenReturn(1);
+
+        ImportResultDto result = enrollmentService.importEnrollments(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(EnrollmentType.STUDENT, userId, courseId), copiedRows.get(0).subList(3, 6));
+        assertEquals(List.of(EnrollmentType.INSTRUCTOR, instructorId, courseId), copiedRows.get(1).subList(3, 6));
+    }
+
+    @Test
+    void testImportEnrollmentsRejectsMalformedRecord() {
+        String csv = "userId,courseId\n" + UUID.randomUUID() + "\n";
+        when(copyIngestService.createStagingTable("enrollments")).thenReturn("enrollments_staging");
+        when(copyIngestService.copy(eq("enrollments_staging"), anyList(), any(), any())).thenAnswer(invocation -> {
+            Iterator<Object> rows = invocation.getArgument(2);
+            rows.forEachRemaining(row -> { });
+            return 0L;
+        });
+
+        InvalidImportException exception = assertThrows(InvalidImportException.class,
+            () -> enrollmentService.importEnrollments(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertTrue(exception.getMessage().startsWith("Invalid record on line 2"));
+        verify(enrollmentRepository, never()).insertStaged();
+    }
+
 }
@@ -0,0 +1,65 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.InvalidImportException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ImportRecordIteratorTest {
+
+    @Test
+    void testSkipsHeaderAndBlankLines() {
+        ImportRecordIterator<Integer> records = iterator("value\n1\n\n  2  \n   \n3", true);
+
+        List<Integer> values = new ArrayList<>();
+        records.forEachRemaining(values::add);
+
+        assertEquals(List.of(1, 2, 3), values);
+        assertEquals(3, records.getReceived());
+        assertFalse(records.hasNext());
+        assertThrows(NoSuchElementException.class, records::next);
+    }
+
+    @Test
+    void testWithoutHeader() {
+        ImportRecordIterator<Integer> records = iterator("1\n2\n", false);
+
+        assertEquals(1, records.next());
+        assertEquals(2, records.next());
+        assertFalse(records.hasNext());
+    }
+
+    @Test
+    void testLineNumberOfLastRecord() {
+        ImportRecordIterator<Integer> records = iterator("value\n1\n\n2\n", true);
+
+        records.next();
+        assertEquals(2, records.getLineNumber());
+        records.next();
+        assertEquals(4, records.getLineNumber());
+    }
+
+    @Test
+    void testInvalidRecordReportsLineNumber() {
+        ImportRecordIterator<Integer> records = iterator("value\n1\n\nnope\n", true);
+        records.next();
+
+        InvalidImportException exception = assertThrows(InvalidImportException.class, records::hasNext);
+
+        assertEquals("Invalid record on line 4: For input string: \"nope\"", exception.getMessage());
+        assertEquals(1, records.getReceived());
+    }
+
+    private static ImportRecordIterator<Integer> iterator(String input, boolean header) {
+        return new ImportRecordIterator<>(new BufferedReader(new StringReader(input)), header, Integer::parseInt);
+    }
+
+}
@@ -0,0 +1,238 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationCounter;
+import bg.sofia.uni.fmi.webjava.backend.repository.EnrollmentRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationCounterRepository;
+import com.github.f4b6a3.ulid.UlidCreator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationCounterServiceTest {
+
+    @Mock
+    private NotificationCounterRepository notificationCounterRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private NotificationCounterService notificationCounterService;
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationCounterService, "cacheSize", 100L);
+        ReflectionTestUtils.setField(notificationCounterService, "cacheTtlMs", 60_000L);
+        ReflectionTestUtils.setField(notificationCounterService, "repairBatchSize", 2);
+        lenient().when(transactionTemplate.getTransactionManager()).thenReturn(transactionManager);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+            invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        notificationCounterService.init();
+    }
+
+    @Test
+    void testGetUnreadCountIsCached() {
+        when(notificationCounterRepository.findById(eq(USER_ID)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 5)));
+
+        assertEquals(5L, notificationCounterService.getUnreadCount(USER_ID));
+        assertEquals(5L, notificationCounterService.getUnreadCount(USER_ID));
+
+        verify(notificationCounterRepository, times(1)).findById(eq(USER_ID));
+    }
+
+    @Test
+    void testGetUnreadCountWithoutCounterRow() {
+        when(notificationCounterRepository.findById(eq(USER_ID))).thenReturn(Optional.empty());
+
+        assertEquals(0L, notificationCounterService.getUnreadCount(USER_ID));
+    }
+
+    @Test
+    void testLoadUnreadCountsReadsUncachedCountsAtOnce() {
+        UUID otherUserId = UUID.randomUUID();
+        when(notificationCounterRepository.findAllById(any()))
+            .thenReturn(List.of(new NotificationCounter(USER_ID, 3)));
+
+        notificationCounterService.loadUnreadCounts(List.of(USER_ID, otherUserId));
+
+        assertEquals(3L, notificationCounterService.getUnreadCount(USER_ID));
+        assertEquals(0L, notificationCounterService.getUnreadCount(otherUserId));
+        verify(notificationCounterRepository, times(1)).findAllById(any());
+        verify(notificationCounterRepository, never()).findById(any());
+    }
+
+    @Test
+    void testAdjustInvalidatesCachedCount() {
+        when(notificationCounterRepository.findById(eq(USER_ID)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 3)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 2)));
+
+        assertEquals(3L, notificationCounterService.getUnreadCount(USER_ID));
+        notificationCounterService.adjust(USER_ID, -1);
+        assertEquals(2L, notificationCounterService.getUnreadCount(USER_ID));
+
+        verify(notificationCounterRepository).adjust(eq(USER_ID), eq(-1L));
+    }
+
+    @Test
+    void testBroadcastCreatedRaisesCachedCountsInPlace() throws InterruptedException {
+        when(notificationCounterRepository.findById(eq(USER_ID)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 3)));
+        LocalDateTime sentAt = LocalDateTime.now();
+
+        assertEquals(3L, notificationCounterService.getUnreadCount(USER_ID));
+        Thread.sleep(2);
+        UUID broadcastId = UlidCreator.getMonotonicUlid().toUuid();
+        notificationCounterService.broadcastCreated(broadcastId, sentAt);
+        notificationCounterService.applyBroadcastCreated(broadcastId);
+
+        assertEquals(4L, notificationCounterService.getUnreadCount(USER_ID));
+        verify(notificationCounterRepository).incrementRegisteredBy(eq(sentAt));
+        verify(notificationCounterRepository, times(1)).findById(eq(USER_ID));
+    }
+
+    @Test
+    void testBroadcastCreatedDropsCountsReadAfterIt() {
+        UUID broadcastId = UlidCreator.getMonotonicUlid().toUuid();
+        when(notificationCounterRepository.findById(eq(USER_ID)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 4)));
+
+        assertEquals(4L, notificationCounterService.getUnreadCount(USER_ID));
+        notificationCounterService.applyBroadcastCreated(broadcastId);
+
+        assertEquals(4L, notificationCounterService.getUnreadCount(USER_ID));
+        verify(notificationCounterRepository, times(2)).findById(eq(USER_ID));
+    }
+
+    @Test
+    void testBroadcastsRemovedInvalidatesReleasedCounts() {
+        UUID broadcastId = UUID.randomUUID();
+        when(notificationCounterRepository.releaseUnreadBroadcasts(eq(List.of(broadcastId))))
+            .thenReturn(List.of(USER_ID));
+        when(notificationCounterRepository.findById(eq(USER_ID)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 3)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 2)));
+
+        assertEquals(3L, notificationCounterService.getUnreadCount(USER_ID));
+        notificationCounterService.broadcastsRemoved(List.of(broadcastId));
+
+        assertEquals(2L, notificationCounterService.getUnreadCount(USER_ID));
+    }
+
+    @Test
+    void testIncrementAll() {
+        notificationCounterService.incrementAll(List.of(USER_ID));
+
+        verify(notificationCounterRepository).incrementAll(eq(List.of(USER_ID)));
+    }
+
+    @Test
+    void testIncrementAllWithNoRecipients() {
+        notificationCounterService.incrementAll(List.of());
+
+        verify(notificationCounterRepository, never()).incrementAll(eq(List.of()));
+    }
+
+    @Test
+    void testCourseFanOutPageCreatedRaisesCountersAndAppliesOnce() {
+        UUID courseId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        when(notificationCounterRepository.findById(eq(USER_ID)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 3)));
+        assertEquals(3L, notificationCounterService.getUnreadCount(USER_ID));
+        UUID firstNotificationId = UlidCreator.getMonotonicUlid().toUuid();
+        when(enrollmentRepository.findEnrolledUserIds(eq(courseId), eq(List.of(USER_ID)))).thenReturn(List.of(USER_ID));
+
+        notificationCounterService.courseFanOutPageCreated(courseId, firstNotificationId, List.of(USER_ID));
+        notificationCounterService.courseFanOutPageCreated(courseId, firstNotificationId, List.of(otherUserId));
+        notificationCounterService.applyCourseFanOut(courseId, firstNotificationId);
+
+        assertEquals(4L, notificationCounterService.getUnreadCount(USER_ID));
+        verify(notificationCounterRepository).incrementAll(eq(List.of(USER_ID)));
+        verify(notificationCounterRepository).incrementAll(eq(List.of(otherUserId)));
+        verify(enrollmentRepository, times(1)).findEnrolledUserIds(any(), any());
+        verify(notificationCounterRepository, times(1)).findById(eq(USER_ID));
+    }
+
+    @Test
+    void testCourseFanOutLeavesCountsOfOtherCoursesCached() {
+        UUID courseId = UUID.randomUUID();
+        when(notificationCounterRepository.findById(eq(USER_ID)))
+            .thenReturn(Optional.of(new NotificationCounter(USER_ID, 3)));
+        assertEquals(3L, notificationCounterService.getUnreadCount(USER_ID));
+        UUID firstNotificationId = UlidCreator.getMonotonicUlid().toUuid();
+
+        notificationCounterService.applyCourseFanOut(courseId, firstNotificationId);
+
+        assertEquals(3L, notificationCounterService.getUnreadCount(USER_ID));
+        verify(notificationCounterRepository, times(1)).findById(eq(USER_ID));
+    }
+
+    @Test
+    void testReconcileCountersRebuildsLockedChunks() {
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        UUID third = new UUID(0, 3);
+        when(notificationCounterRepository.tryAdvisoryLock(anyLong())).thenReturn(true);
+        when(notificationCounterRepository.findUserIdsAfter(eq(new UUID(0, 0)), eq(2)))
+            .thenReturn(List.of(first, second));
+        when(notificationCounterRepository.findUserIdsAfter(eq(second), eq(2))).thenReturn(List.of(third));
+
+        notificationCounterService.reconcileCounters();
+
+        InOrder inOrder = inOrder(notificationCounterRepository);
+        inOrder.verify(notificationCounterRepository).insertMissing(eq(List.of(first, second)));
+        inOrder.verify(notificationCounterRepository).lockAll(eq(List.of(first, second)));
+        inOrder.verify(notificationCounterRepository).recount(eq(List.of(first, second)));
+        inOrder.verify(notificationCounterRepository).lockAll(eq(List.of(third)));
+        inOrder.verify(notificationCounterRepository).recount(eq(List.of(third)));
+        inOrder.verify(notificationCounterRepository).deleteOrphaned();
+        verify(notificationCounterRepository, never()).findUserIdsAfter(eq(third), anyInt());
+    }
+
+    @Test
+    void testReconcileCountersSkipsWhenAnotherNodeHoldsTheLock() {
+        when(notificationCounterRepository.tryAdvisoryLock(anyLong())).thenReturn(false);
+
+        notificationCounterService.reconcileCounters();
+
+        verify(notificationCounterRepository, never()).findUserIdsAfter(any(), anyInt());
+        verify(notificationCounterRepository, never()).deleteOrphaned();
+    }
+
+}
@@ -0,0 +1,153 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEvent;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEventType;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createStandardTestUser;
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestCourse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxDispatcherTest {
+
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private NotificationOutboxDispatcher notificationOutboxDispatcher;
+
+    private static final Course TEST_COURSE = createTestCourse();
+    private static final User TEST_USER = createStandardTestUser();
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationOutboxDispatcher, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(notificationOutboxDispatcher, "retryBackoffMs", 1000L);
+        ReflectionTestUtils.setField(notificationOutboxDispatcher, "maxAttempts", MAX_ATTEMPTS);
+        when(transactionTemplate.execute(any())).thenAnswer(
+            invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+    }
+
+    @Test
+    void testDispatchBatchExpandsAndDeletesEvents() {
+        NotificationOutboxEvent created = createEvent(NotificationOutboxEventType.COURSE_CREATED, null);
+        NotificationOutboxEvent updated = createEvent(NotificationOutboxEventType.COURSE_UPDATED, "Course updated");
+        when(notificationOutboxRepository.claimNext(any()))
+            .thenReturn(Optional.of(created))
+            .thenReturn(Optional.of(updated));
+
+        int dispatched = notificationOutboxDispatcher.dispatchBatch();
+
+        assertEquals(2, dispatched);
+        verify(notificationService).notifyAllUsersCourseCreated(eq(TEST_COURSE), eq(TEST_USER));
+        verify(notificationService).notifyEnrolledUsersCourseUpdated(eq(TEST_COURSE), eq(TEST_USER), eq("Course updated"));
+        verify(notificationOutboxRepository).delete(eq(created));
+        verify(notificationOutboxRepository).delete(eq(updated));
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void testDispatchBatchWithEmptyOutbox() {
+        when(notificationOutboxRepository.claimNext(any())).thenReturn(Optional.empty());
+
+        int dispatched = notificationOutboxDispatcher.dispatchBatch();
+
+        assertEquals(0, dispatched);
+        verify(notificationService, never()).notifyAllUsersCourseCreated(any(), any());
+    }
+
+    @Test
+    void testDispatchBatchPostponesOnlyTheFailingEvent() {
+        NotificationOutboxEvent failing = createEvent(NotificationOutboxEventType.COURSE_CREATED, null);
+        NotificationOutboxEvent updated = createEvent(NotificationOutboxEventType.COURSE_UPDATED, "Course updated");
+        when(notificationOutboxRepository.claimNext(any()))
+            .thenReturn(Optional.of(failing))
+            .thenReturn(Optional.of(updated));
+        when(notificationOutboxRepository.findById(eq(failing.getId()))).thenReturn(Optional.of(failing));
+        doThrow(new IllegalStateException("boom"))
+            .when(notificationService).notifyAllUsersCourseCreated(any(), any());
+        runWithoutResultInline();
+
+        int dispatched = notificationOutboxDispatcher.dispatchBatch();
+
+        assertEquals(2, dispatched);
+        verify(notificationOutboxRepository, never()).delete(eq(failing));
+        verify(notificationOutboxRepository).delete(eq(updated));
+        assertEquals(1, failing.getAttempts());
+        assertEquals("java.lang.IllegalStateException: boom", failing.getLastError());
+        assertFalse(failing.isDeadLettered());
+        assertTrue(failing.getAvailableAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void testDispatchBatchDeadLettersEventAfterMaxAttempts() {
+        NotificationOutboxEvent failing = createEvent(NotificationOutboxEventType.COURSE_CREATED, null);
+        failing.setAttempts(MAX_ATTEMPTS - 1);
+        when(notificationOutboxRepository.claimNext(any()))
+            .thenReturn(Optional.of(failing))
+            .thenReturn(Optional.empty());
+        when(notificationOutboxRepository.findById(eq(failing.getId()))).thenReturn(Optional.of(failing));
+        doThrow(new IllegalStateException("boom"))
+            .when(notificationService).notifyAllUsersCourseCreated(any(), any());
+        runWithoutResultInline();
+
+        notificationOutboxDispatcher.dispatchBatch();
+
+        assertEquals(MAX_ATTEMPTS, failing.getAttempts());
+        assertTrue(failing.isDeadLettered());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runWithoutResultInline() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static NotificationOutboxEvent createEvent(NotificationOutboxEventType type, String message) {
+        NotificationOutboxEvent event = new NotificationOutboxEvent();
+        event.setId(UUID.randomUUID());
+        event.setType(type);
+        event.setCourse(TEST_COURSE);
+        event.setSender(TEST_USER);
+        event.setMessage(message);
+        return event;
+    }
+
+}
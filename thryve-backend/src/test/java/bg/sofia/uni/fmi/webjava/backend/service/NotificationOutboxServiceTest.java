@@ -0,0 +1,118 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEvent;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.NotificationOutboxEventType;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createStandardTestUser;
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestCourse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxServiceTest {
+
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @InjectMocks
+    private NotificationOutboxService notificationOutboxService;
+
+    private static final Course TEST_COURSE = createTestCourse();
+    private static final User TEST_USER = createStandardTestUser();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationOutboxService, "coalescingWindowMs", 60_000L);
+    }
+
+    @Test
+    void testEnqueueCourseCreated() {
+        ArgumentCaptor<NotificationOutboxEvent> captor = ArgumentCaptor.forClass(NotificationOutboxEvent.class);
+
+        notificationOutboxService.enqueueCourseCreated(TEST_COURSE, TEST_USER);
+
+        verify(notificationOutboxRepository).save(captor.capture());
+        NotificationOutboxEvent event = captor.getValue();
+        assertEquals(NotificationOutboxEventType.COURSE_CREATED, event.getType());
+        assertEquals(TEST_COURSE, event.getCourse());
+        assertEquals(TEST_USER, event.getSender());
+        assertNull(event.getMessage());
+        assertNotNull(event.getAvailableAt());
+    }
+
+    @Test
+    void testEnqueueCourseUpdated() {
+        ArgumentCaptor<NotificationOutboxEvent> captor = ArgumentCaptor.forClass(NotificationOutboxEvent.class);
+        when(notificationOutboxRepository.coalescePending(eq(TEST_COURSE.getId()),
+            eq(NotificationOutboxEventType.COURSE_UPDATED), eq(TEST_USER), eq("Course updated"), any()))
+            .thenReturn(0);
+
+        notificationOutboxService.enqueueCourseUpdated(TEST_COURSE, TEST_USER, "Course updated");
+
+        verify(notificationOutboxRepository).save(captor.capture());
+        NotificationOutboxEvent event = captor.getValue();
+        assertEquals(NotificationOutboxEventType.COURSE_UPDATED, event.getType());
+        assertEquals("Course updated", event.getMessage());
+        assertTrue(event.getAvailableAt().isAfter(LocalDateTime.now().plusSeconds(50)));
+    }
+
+    @Test
+    void testEnqueueCourseUpdatedCoalescesIntoPendingEvent() {
+        when(notificationOutboxRepository.coalescePending(eq(TEST_COURSE.getId()),
+            eq(NotificationOutboxEventType.COURSE_UPDATED), eq(TEST_USER), eq("Course updated"), any()))
+            .thenReturn(1);
+
+        notificationOutboxService.enqueueCourseUpdated(TEST_COURSE, TEST_USER, "Course updated");
+
+        verify(notificationOutboxRepository, never()).save(any());
+    }
+
+    @Test
+    void testEnqueueCourseUpdatedLocksCourseBeforeCoalescing() {
+        notificationOutboxService.enqueueCourseUpdated(TEST_COURSE, TEST_USER, "Course updated");
+
+        InOrder inOrder = inOrder(notificationOutboxRepository);
+        inOrder.verify(notificationOutboxRepository).lockCourse(anyInt(), eq(TEST_COURSE.getId()));
+        inOrder.verify(notificationOutboxRepository).coalescePending(eq(TEST_COURSE.getId()),
+            eq(NotificationOutboxEventType.COURSE_UPDATED), eq(TEST_USER), eq("Course updated"), any());
+        inOrder.verify(notificationOutboxRepository).save(any(NotificationOutboxEvent.class));
+    }
+
+    @Test
+    void testEnqueueCourseUpdatedWithoutWindowIsImmediate() {
+        ReflectionTestUtils.setField(notificationOutboxService, "coalescingWindowMs", 0L);
+        ArgumentCaptor<NotificationOutboxEvent> captor = ArgumentCaptor.forClass(NotificationOutboxEvent.class);
+
+        notificationOutboxService.enqueueCourseUpdated(TEST_COURSE, TEST_USER, "Course updated");
+
+        verify(notificationOutboxRepository, never()).lockCourse(anyInt(), any());
+        verify(notificationOutboxRepository, never()).coalescePending(any(), any(), any(), any(), any());
+        verify(notificationOutboxRepository).save(captor.capture());
+        assertFalse(captor.getValue().getAvailableAt().isAfter(LocalDateTime.now()));
+    }
+
+}
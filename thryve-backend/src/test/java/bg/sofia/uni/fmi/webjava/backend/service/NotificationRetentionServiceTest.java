@@ -0,0 +1,134 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationRepository.PurgedNotifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationRetentionServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private NotificationRetentionService notificationRetentionService;
+
+    private static final int BATCH_SIZE = 10;
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID OTHER_USER_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationRetentionService, "maxAgeDays", 30);
+        ReflectionTestUtils.setField(notificationRetentionService, "maxPerUser", 100);
+        ReflectionTestUtils.setField(notificationRetentionService, "batchSize", BATCH_SIZE);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+            invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+    }
+
+    @Test
+    void testPurgeRunsChunksUntilShortBatch() {
+        when(notificationRepository.purgeOlderThan(any(), eq(BATCH_SIZE)))
+            .thenReturn(List.of(purged(USER_ID, 6, 2), purged(OTHER_USER_ID, 4, 4)))
+            .thenReturn(List.of(purged(USER_ID, 3, 0)));
+        when(notificationRepository.lockBroadcastsOlderThan(any(), eq(BATCH_SIZE))).thenReturn(List.of());
+        when(notificationRepository.purgeExcessPerRecipient(eq(100), eq(BATCH_SIZE))).thenReturn(List.of());
+
+        notificationRetentionService.purgeNotifications();
+
+        verify(notificationRepository, times(2)).purgeOlderThan(any(), eq(BATCH_SIZE));
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-2L));
+        verify(notificationCounterService).adjust(eq(OTHER_USER_ID), eq(-4L));
+    }
+
+    @Test
+    void testBroadcastPurgeReleasesCountersBeforeDeleting() {
+        List<UUID> broadcastIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(notificationRepository.lockBroadcastsOlderThan(any(), eq(BATCH_SIZE))).thenReturn(broadcastIds);
+
+        long total = notificationRetentionService.purgeBroadcastsInChunks(LocalDateTime.now());
+
+        assertEquals(2, total);
+        InOrder inOrder = inOrder(notificationCounterService, notificationRepository);
+        inOrder.verify(notificationCounterService).broadcastsRemoved(eq(broadcastIds));
+        inOrder.verify(notificationRepository).deleteAllByIdInBatch(eq(broadcastIds));
+    }
+
+    @Test
+    void testPurgeInChunksReturnsTotal() {
+        long total = notificationRetentionService.purgeInChunks(() -> List.of(purged(USER_ID, 5, 5)));
+
+        assertEquals(5, total);
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-5L));
+    }
+
+    @Test
+    void testDisabledPoliciesAreSkipped() {
+        ReflectionTestUtils.setField(notificationRetentionService, "maxAgeDays", 0);
+        ReflectionTestUtils.setField(notificationRetentionService, "maxPerUser", 0);
+
+        notificationRetentionService.purgeNotifications();
+
+        verify(notificationRepository, never()).purgeOlderThan(any(), anyInt());
+        verify(notificationRepository, never()).purgeExcessPerRecipient(anyInt(), anyInt());
+    }
+
+    @Test
+    void testPurgeFailureIsContained() {
+        when(notificationRepository.purgeOlderThan(any(), eq(BATCH_SIZE))).thenThrow(new IllegalStateException("boom"));
+
+        notificationRetentionService.purgeNotifications();
+
+        verify(notificationRepository, never()).purgeExcessPerRecipient(anyInt(), anyInt());
+    }
+
+    private static PurgedNotifications purged(UUID recipientId, long purged, long unread) {
+        return new PurgedNotifications() {
+            @Override
+            public UUID getRecipientId() {
+                return recipientId;
+            }
+
+            @Override
+            public long getPurged() {
+                return purged;
+            }
+
+            @Override
+            public long getUnread() {
+                return unread;
+            }
+        };
+    }
+
+}
@@ -1,7 +1,11 @@
 package bg.sofia.uni.fmi.webjava.backend.service;
 
+import bg.sofia.uni.fmi.webjava.backend.event.NotificationPush;
+import bg.sofia.uni.fmi.webjava.backend.event.NotificationsChangedEvent;
 import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
+import bg.sofia.uni.fmi.webjava.backend.exception.InvalidPageRequestException;
 import bg.sofia.uni.fmi.webjava.backend.mapper.NotificationDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.CursorPage;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Course;
@@ -9,35 +13,50 @@ import bg.sofia.uni.fmi.webjava.backend.model.entity.Enrollment;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.Notification;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
 import bg.sofia.uni.fmi.webjava.backend.repository.EnrollmentRepository;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationReceiptRepository;
 import bg.sofia.uni.fmi.webjava.backend.repository.NotificationRepository;
-import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createStandardTestUser;
 import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createStandardUserResponseDto;
 import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestCourse;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -51,7 +70,7 @@ public class NotificationServiceTest {
     private NotificationDtoMapper notificationDtoMapper;
 
     @Mock
-    private UserRepository userRepository;
+    private NotificationReceiptRepository notificationReceiptRepository;
 
     @Mock
     private UserService userService;
@@ -59,9 +78,26 @@ public class NotificationServiceTest {
     @Mock
     private EnrollmentRepository enrollmentRepository;
 
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @Mock
+    private BulkWriter bulkWriter;
+
+    @Mock
+    private CopyIngestService copyIngestService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private NotificationService notificationService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationService, "copyThreshold", 1000L);
+    }
+
     private static final User TEST_USER = createStandardTestUser();
     private static final UserResponseDto TEST_USER_RESPONSE_DTO = createStandardUserResponseDto();
     private static final Course TEST_COURSE = createTestCourse();
@@ -70,9 +106,11 @@ public class NotificationServiceTest {
     private static final Notification TEST_NOTIFICATION = new Notification();
     private static final NotificationResponseDto TEST_NOTIFICATION_RESPONSE_DTO = new NotificationResponseDto();
     private static final UUID NOTIFICATION_ID = TEST_NOTIFICATION.getId();
+    private static final Notification TEST_BROADCAST_NOTIFICATION = new Notification();
 
     @Test
     void testGetNotificationsByRecipientEmail() {
+        TEST_NOTIFICATION.setRecipient(TEST_USER);
         Pageable pageable = PageRequest.of(0, 10);
         Page<Notification> page = new PageImpl<>(List.of(TEST_NOTIFICATION));
         when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
@@ -84,38 +122,178 @@ public class NotificationServiceTest {
         verify(userService).getUserByEmail(eq(EMAIL));
         verify(notificationRepository).findByRecipientId(eq(USER_ID), eq(pageable));
         verify(notificationDtoMapper).mapToResponseDto(eq(TEST_NOTIFICATION));
+        verifyNoInteractions(notificationReceiptRepository);
         assertNotNull(result);
         assertTrue(result.getContent().contains(TEST_NOTIFICATION_RESPONSE_DTO));
     }
 
+    @Test
+    void testGetNotificationsByRecipientEmailMarksReadBroadcasts() {
+        UUID broadcastId = UUID.randomUUID();
+        Notification broadcast = new Notification();
+        broadcast.setId(broadcastId);
+        NotificationResponseDto broadcastDto = new NotificationResponseDto();
+        broadcastDto.setBroadcast(true);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findByRecipientId(eq(USER_ID), eq(pageable)))
+            .thenReturn(new PageImpl<>(List.of(broadcast)));
+        when(notificationReceiptRepository.findReadNotificationIds(eq(USER_ID), eq(List.of(broadcastId))))
+            .thenReturn(Set.of(broadcastId));
+        when(notificationDtoMapper.mapToResponseDto(eq(broadcast))).thenReturn(broadcastDto);
+
+        Page<NotificationResponseDto> result = notificationService.getNotificationsByRecipientEmail(EMAIL, pageable);
+
+        verify(notificationReceiptRepository).findReadNotificationIds(eq(USER_ID), eq(List.of(broadcastId)));
+        assertTrue(result.getContent().getFirst().isRead());
+    }
+
+    @Test
+    void testGetNotificationFeedReturnsCursorWhenMoreRowsExist() {
+        List<Notification> rows = List.of(feedNotification(3), feedNotification(2), feedNotification(1));
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findFeedNewestFirst(eq(USER_ID), any(), any(), eq(Limit.of(3))))
+            .thenReturn(rows);
+        when(notificationDtoMapper.mapToResponseDto(any(Notification.class)))
+            .thenReturn(TEST_NOTIFICATION_RESPONSE_DTO);
+
+        CursorPage<NotificationResponseDto> page = notificationService
+            .getNotificationFeedByRecipientEmail(EMAIL, null, 2, "createdAt", Sort.Direction.DESC);
+
+        assertEquals(2, page.getContent().size());
+        assertNotNull(page.getNextCursor());
+
+        when(notificationRepository.findFeedNewestFirst(
+            eq(USER_ID), eq(rows.get(1).getCreatedAt()), eq(rows.get(1).getId()), eq(Limit.of(3))))
+            .thenReturn(List.of(rows.get(2)));
+
+        CursorPage<NotificationResponseDto> next = notificationService
+            .getNotificationFeedByRecipientEmail(EMAIL, page.getNextCursor(), 2, "createdAt", Sort.Direction.DESC);
+
+        assertEquals(1, next.getContent().size());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetNotificationFeedOldestFirst() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findFeedOldestFirst(eq(USER_ID), any(), any(), eq(Limit.of(11))))
+            .thenReturn(List.of());
+
+        CursorPage<NotificationResponseDto> page = notificationService
+            .getNotificationFeedByRecipientEmail(EMAIL, null, 10, "createdAt", Sort.Direction.ASC);
+
+        assertTrue(page.getContent().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(notificationRepository, never()).findFeedNewestFirst(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetNotificationFeedRejectsUnsupportedSortKey() {
+        assertThrows(InvalidPageRequestException.class, () -> notificationService
+            .getNotificationFeedByRecipientEmail(EMAIL, null, 10, "postedAt", Sort.Direction.DESC));
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void testGetNotificationFeedRejectsInvalidLimit() {
+        assertThrows(InvalidPageRequestException.class, () -> notificationService
+            .getNotificationFeedByRecipientEmail(EMAIL, null, 0, "createdAt", Sort.Direction.DESC));
+        assertThrows(InvalidPageRequestException.class, () -> notificationService
+            .getNotificationFeedByRecipientEmail(EMAIL, null, 1000, "createdAt", Sort.Direction.DESC));
+    }
+
+    @Test
+    void testGetNotificationFeedRejectsMalformedCursor() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+
+        assertThrows(InvalidPageRequestException.class, () -> notificationService
+            .getNotificationFeedByRecipientEmail(EMAIL, "not-a-cursor", 10, "createdAt", Sort.Direction.DESC));
+        verifyNoInteractions(notificationRepository);
+    }
+
     @Test
     void testGetUnreadNotificationsCountByRecipientEmail() {
         when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
-        when(notificationRepository.countByRecipientIdAndReadFalse(eq(USER_ID))).thenReturn(5L);
+        when(notificationCounterService.getUnreadCount(eq(USER_ID))).thenReturn(5L);
 
         long count = notificationService.getUnreadNotificationsCountByRecipientEmail(EMAIL);
 
         verify(userService).getUserByEmail(eq(EMAIL));
-        verify(notificationRepository).countByRecipientIdAndReadFalse(eq(USER_ID));
+        verify(notificationCounterService).getUnreadCount(eq(USER_ID));
+        verifyNoInteractions(notificationRepository);
         assertEquals(5L, count);
     }
 
     @Test
     void testMarkNotificationAsReadByRecipientEmail() {
+        NotificationResponseDto dto = new NotificationResponseDto();
         when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
         when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
             .thenReturn(Optional.of(TEST_NOTIFICATION));
-        when(notificationRepository.save(any(Notification.class))).thenReturn(TEST_NOTIFICATION);
-        when(notificationDtoMapper.mapToResponseDto(eq(TEST_NOTIFICATION))).thenReturn(TEST_NOTIFICATION_RESPONSE_DTO);
+        when(notificationRepository.markReadByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID))).thenReturn(1);
+        when(notificationDtoMapper.mapToResponseDto(eq(TEST_NOTIFICATION))).thenReturn(dto);
 
         NotificationResponseDto result = notificationService.markNotificationAsReadByRecipientEmail(NOTIFICATION_ID, EMAIL);
 
         verify(userService).getUserByEmail(eq(EMAIL));
         verify(notificationRepository).findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID));
-        verify(notificationRepository).save(any(Notification.class));
-        verify(notificationDtoMapper).mapToResponseDto(eq(TEST_NOTIFICATION));
-        assertEquals(TEST_NOTIFICATION_RESPONSE_DTO, result);
-        assertTrue(TEST_NOTIFICATION.isRead());
+        verify(notificationRepository, never()).save(any(Notification.class));
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-1L));
+        assertEquals(dto, result);
+        assertTrue(result.isRead());
+    }
+
+    @Test
+    void testMarkNotificationAsReadDecrementsUnreadCounterOnce() {
+        Notification unread = new Notification();
+        unread.setRecipient(TEST_USER);
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.of(unread));
+        when(notificationRepository.markReadByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(1)
+            .thenReturn(0);
+        when(notificationDtoMapper.mapToResponseDto(eq(unread))).thenAnswer(invocation -> new NotificationResponseDto());
+
+        notificationService.markNotificationAsReadByRecipientEmail(NOTIFICATION_ID, EMAIL);
+        notificationService.markNotificationAsReadByRecipientEmail(NOTIFICATION_ID, EMAIL);
+
+        verify(notificationCounterService, times(1)).adjust(eq(USER_ID), eq(-1L));
+    }
+
+    @Test
+    void testMarkBroadcastNotificationAsReadByRecipientEmail() {
+        NotificationResponseDto broadcastDto = new NotificationResponseDto();
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.empty());
+        when(notificationRepository.findVisibleBroadcastById(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.of(TEST_BROADCAST_NOTIFICATION));
+        when(notificationReceiptRepository.insertReceipt(eq(NOTIFICATION_ID), eq(USER_ID), eq(false))).thenReturn(1);
+        when(notificationDtoMapper.mapToResponseDto(eq(TEST_BROADCAST_NOTIFICATION))).thenReturn(broadcastDto);
+
+        NotificationResponseDto result = notificationService.markNotificationAsReadByRecipientEmail(NOTIFICATION_ID, EMAIL);
+
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-1L));
+        verify(notificationRepository, never()).save(any(Notification.class));
+        assertTrue(result.isRead());
+    }
+
+    @Test
+    void testMarkReadBroadcastAsReadAgainKeepsCounter() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.empty());
+        when(notificationRepository.findVisibleBroadcastById(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.of(TEST_BROADCAST_NOTIFICATION));
+        when(notificationReceiptRepository.insertReceipt(eq(NOTIFICATION_ID), eq(USER_ID), eq(false))).thenReturn(0);
+        when(notificationDtoMapper.mapToResponseDto(eq(TEST_BROADCAST_NOTIFICATION)))
+            .thenReturn(new NotificationResponseDto());
+
+        notificationService.markNotificationAsReadByRecipientEmail(NOTIFICATION_ID, EMAIL);
+
+        verifyNoInteractions(notificationCounterService, eventPublisher);
     }
 
     @Test
@@ -123,6 +301,7 @@ public class NotificationServiceTest {
         when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
         when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
             .thenReturn(Optional.empty());
+        when(notificationRepository.findVisibleBroadcastById(eq(NOTIFICATION_ID), eq(USER_ID))).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
             () -> notificationService.markNotificationAsReadByRecipientEmail(NOTIFICATION_ID, EMAIL));
@@ -133,23 +312,88 @@ public class NotificationServiceTest {
         when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
         when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
             .thenReturn(Optional.of(TEST_NOTIFICATION));
-        doNothing().when(notificationRepository).delete(eq(TEST_NOTIFICATION));
+        when(notificationRepository.deleteByIdAndRecipientIdReturningRead(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(List.of(true));
         when(notificationDtoMapper.mapToResponseDto(eq(TEST_NOTIFICATION))).thenReturn(TEST_NOTIFICATION_RESPONSE_DTO);
 
         NotificationResponseDto result = notificationService.deleteNotificationById(NOTIFICATION_ID, EMAIL);
 
         verify(userService).getUserByEmail(eq(EMAIL));
         verify(notificationRepository).findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID));
-        verify(notificationRepository).delete(eq(TEST_NOTIFICATION));
         verify(notificationDtoMapper).mapToResponseDto(eq(TEST_NOTIFICATION));
+        verifyNoInteractions(notificationCounterService);
         assertEquals(TEST_NOTIFICATION_RESPONSE_DTO, result);
     }
 
+    @Test
+    void testDeleteUnreadNotificationDecrementsUnreadCounter() {
+        Notification unread = new Notification();
+        unread.setRecipient(TEST_USER);
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.of(unread));
+        when(notificationRepository.deleteByIdAndRecipientIdReturningRead(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(List.of(false));
+
+        notificationService.deleteNotificationById(NOTIFICATION_ID, EMAIL);
+
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-1L));
+    }
+
+    @Test
+    void testDeleteNotificationDeletedConcurrentlyKeepsCounter() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.of(new Notification()));
+        when(notificationRepository.deleteByIdAndRecipientIdReturningRead(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(List.of());
+
+        notificationService.deleteNotificationById(NOTIFICATION_ID, EMAIL);
+
+        verifyNoInteractions(notificationCounterService);
+    }
+
+    @Test
+    void testDeleteBroadcastNotificationById() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.empty());
+        when(notificationRepository.findVisibleBroadcastById(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.of(TEST_BROADCAST_NOTIFICATION));
+        when(notificationDtoMapper.mapToResponseDto(eq(TEST_BROADCAST_NOTIFICATION)))
+            .thenReturn(TEST_NOTIFICATION_RESPONSE_DTO);
+
+        when(notificationReceiptRepository.insertReceipt(eq(NOTIFICATION_ID), eq(USER_ID), eq(true))).thenReturn(1);
+
+        NotificationResponseDto result = notificationService.deleteNotificationById(NOTIFICATION_ID, EMAIL);
+
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-1L));
+        verify(notificationReceiptRepository, never()).dismissReceipt(any(), any());
+        verify(notificationRepository, never()).delete(any(Notification.class));
+        assertEquals(TEST_NOTIFICATION_RESPONSE_DTO, result);
+    }
+
+    @Test
+    void testDeleteReadBroadcastDismissesReceipt() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.empty());
+        when(notificationRepository.findVisibleBroadcastById(eq(NOTIFICATION_ID), eq(USER_ID)))
+            .thenReturn(Optional.of(TEST_BROADCAST_NOTIFICATION));
+        when(notificationReceiptRepository.insertReceipt(eq(NOTIFICATION_ID), eq(USER_ID), eq(true))).thenReturn(0);
+
+        notificationService.deleteNotificationById(NOTIFICATION_ID, EMAIL);
+
+        verify(notificationReceiptRepository).dismissReceipt(eq(NOTIFICATION_ID), eq(USER_ID));
+        verifyNoInteractions(notificationCounterService);
+    }
+
     @Test
     void testDeleteNotificationByIdNotFound() {
         when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
         when(notificationRepository.findByIdAndRecipientId(eq(NOTIFICATION_ID), eq(USER_ID)))
             .thenReturn(Optional.empty());
+        when(notificationRepository.findVisibleBroadcastById(eq(NOTIFICATION_ID), eq(USER_ID))).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
             () -> notificationService.deleteNotificationById(NOTIFICATION_ID, EMAIL));
@@ -158,24 +402,98 @@ public class NotificationServiceTest {
     @Test
     void testDeleteNotificationsByRecipientEmail() {
         when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
-        doNothing().when(notificationRepository).deleteByRecipientId(eq(USER_ID));
+        when(notificationRepository.deleteByRecipientId(eq(USER_ID))).thenReturn(2);
 
         notificationService.deleteNotificationsByRecipientEmail(EMAIL);
 
         verify(userService).getUserByEmail(eq(EMAIL));
         verify(notificationRepository).deleteByRecipientId(eq(USER_ID));
+        verify(notificationReceiptRepository).dismissAllBroadcasts(eq(USER_ID));
+        verify(notificationCounterService).reset(eq(USER_ID));
+        verify(eventPublisher).publishEvent(
+            eq(new NotificationsChangedEvent(List.of(NotificationPush.unreadCountChanged(USER_ID)))));
+    }
+
+    @Test
+    void testMarkAllNotificationsAsReadByRecipientEmail() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.markAllReadByRecipientId(eq(USER_ID))).thenReturn(3);
+        when(notificationReceiptRepository.markAllBroadcastsRead(eq(USER_ID))).thenReturn(2);
+
+        int affected = notificationService.markAllNotificationsAsReadByRecipientEmail(EMAIL);
+
+        assertEquals(5, affected);
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-5L));
+        verify(eventPublisher).publishEvent(
+            eq(new NotificationsChangedEvent(List.of(NotificationPush.unreadCountChanged(USER_ID)))));
+    }
+
+    @Test
+    void testMarkAllNotificationsAsReadWithNothingUnread() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.markAllReadByRecipientId(eq(USER_ID))).thenReturn(0);
+        when(notificationReceiptRepository.markAllBroadcastsRead(eq(USER_ID))).thenReturn(0);
+
+        int affected = notificationService.markAllNotificationsAsReadByRecipientEmail(EMAIL);
+
+        assertEquals(0, affected);
+        verifyNoInteractions(notificationCounterService, eventPublisher);
+    }
+
+    @Test
+    void testMarkNotificationsAsReadByRecipientEmail() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.markReadByRecipientIdAndIdIn(eq(USER_ID), eq(ids))).thenReturn(1);
+        when(notificationReceiptRepository.markBroadcastsRead(eq(USER_ID), eq(ids))).thenReturn(0);
+
+        int affected = notificationService.markNotificationsAsReadByRecipientEmail(ids, EMAIL);
+
+        assertEquals(1, affected);
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-1L));
+    }
+
+    @Test
+    void testMarkNotificationsAsReadBeforeByRecipientEmail() {
+        LocalDateTime before = LocalDateTime.now();
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.markReadByRecipientIdAndCreatedAtBefore(eq(USER_ID), eq(before))).thenReturn(0);
+        when(notificationReceiptRepository.markBroadcastsReadBefore(eq(USER_ID), eq(before))).thenReturn(4);
+
+        int affected = notificationService.markNotificationsAsReadBeforeByRecipientEmail(before, EMAIL);
+
+        assertEquals(4, affected);
+        verify(notificationCounterService).adjust(eq(USER_ID), eq(-4L));
+    }
+
+    @Test
+    void testDeleteReadNotificationsByRecipientEmail() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(TEST_USER_RESPONSE_DTO);
+        when(notificationRepository.deleteReadByRecipientId(eq(USER_ID))).thenReturn(2);
+        when(notificationReceiptRepository.dismissReadBroadcasts(eq(USER_ID))).thenReturn(1);
+
+        int affected = notificationService.deleteReadNotificationsByRecipientEmail(EMAIL);
+
+        assertEquals(3, affected);
+        verifyNoInteractions(notificationCounterService, eventPublisher);
     }
 
     @Test
     void testNotifyAllUsersCourseCreated() {
-        List<User> users = List.of(TEST_USER);
-        when(userRepository.findAll()).thenReturn(users);
-        when(notificationRepository.saveAll(anyList())).thenReturn(List.of(TEST_NOTIFICATION));
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        when(notificationRepository.save(captor.capture())).thenReturn(TEST_BROADCAST_NOTIFICATION);
 
         notificationService.notifyAllUsersCourseCreated(TEST_COURSE, TEST_USER);
 
-        verify(userRepository).findAll();
-        verify(notificationRepository).saveAll(anyList());
+        verify(notificationRepository).save(any(Notification.class));
+        verifyNoMoreInteractions(notificationRepository);
+        assertNull(captor.getValue().getRecipient());
+        assertEquals(TEST_COURSE, captor.getValue().getCourse());
+        assertEquals(TEST_USER, captor.getValue().getSender());
+        verify(notificationCounterService).broadcastCreated(
+            eq(TEST_BROADCAST_NOTIFICATION.getId()), eq(TEST_BROADCAST_NOTIFICATION.getCreatedAt()));
+        verify(eventPublisher).publishEvent(eq(new NotificationsChangedEvent(
+            List.of(NotificationPush.broadcast(TEST_BROADCAST_NOTIFICATION.getId())))));
     }
 
     @Test
@@ -184,12 +502,13 @@ public class NotificationServiceTest {
         enrollment.setUser(TEST_USER);
         List<Enrollment> enrollments = List.of(enrollment);
         when(enrollmentRepository.findByCourse(eq(TEST_COURSE))).thenReturn(enrollments);
-        when(notificationRepository.saveAll(anyList())).thenReturn(List.of(TEST_NOTIFICATION));
 
         notificationService.notifyEnrolledUsersCourseUpdated(TEST_COURSE, TEST_USER, "Course updated");
 
         verify(enrollmentRepository).findByCourse(eq(TEST_COURSE));
-        verify(notificationRepository).saveAll(anyList());
+        verify(bulkWriter).persistAll(anyList());
+        verify(notificationCounterService).incrementAll(eq(List.of(USER_ID)));
+        verify(eventPublisher).publishEvent(any(NotificationsChangedEvent.class));
     }
 
     @Test
@@ -200,6 +519,65 @@ public class NotificationServiceTest {
 
         verify(enrollmentRepository).findByCourse(eq(TEST_COURSE));
         verifyNoMoreInteractions(notificationRepository);
+        verifyNoInteractions(bulkWriter, eventPublisher);
+    }
+
+    @Test
+    void testNotifyEnrolledUsersCourseUpdatedCopiesLargeFanOutPageByPage() {
+        List<UUID> firstPage = Stream.generate(UUID::randomUUID).limit(1000).sorted().toList();
+        UUID lastUserId = UUID.randomUUID();
+        List<List<?>> copiedRows = new ArrayList<>();
+        when(enrollmentRepository.countByCourse(eq(TEST_COURSE))).thenReturn(1001L);
+        UUID courseId = TEST_COURSE.getId();
+        when(enrollmentRepository.findUserIdsByCourseIdAfter(eq(courseId), eq(new UUID(0L, 0L)), eq(1000)))
+            .thenReturn(firstPage);
+        when(enrollmentRepository.findUserIdsByCourseIdAfter(eq(courseId), eq(firstPage.getLast()), eq(1000)))
+            .thenReturn(List.of(lastUserId));
+        when(copyIngestService.copy(eq("notifications"), anyList(), any(), any())).thenAnswer(invocation -> {
+            Iterator<Object> rows = invocation.getArgument(2);
+            Function<Object, List<?>> toValues = invocation.getArgument(3);
+            rows.forEachRemaining(row -> copiedRows.add(toValues.apply(row)));
+            return (long) copiedRows.size();
+        });
+
+        notificationService.notifyEnrolledUsersCourseUpdated(TEST_COURSE, TEST_USER, "Course updated");
+
+        assertEquals(1001, copiedRows.size());
+        assertEquals(List.of("Course updated", "Course updated", false, firstPage.getFirst(), USER_ID,
+            TEST_COURSE.getId()), copiedRows.get(0).subList(3, 9));
+        assertEquals(lastUserId, copiedRows.get(1000).get(6));
+        UUID firstNotificationId = (UUID) copiedRows.get(0).get(0);
+        verify(copyIngestService, times(2)).copy(eq("notifications"), anyList(), any(), any());
+        verify(enrollmentRepository, never()).findByCourse(any());
+        verifyNoInteractions(bulkWriter);
+        verify(notificationCounterService)
+            .courseFanOutPageCreated(eq(TEST_COURSE.getId()), eq(firstNotificationId), eq(firstPage));
+        verify(notificationCounterService)
+            .courseFanOutPageCreated(eq(TEST_COURSE.getId()), eq(firstNotificationId), eq(List.of(lastUserId)));
+        verify(notificationCounterService, never()).incrementAll(any());
+        ArgumentCaptor<NotificationsChangedEvent> captor = ArgumentCaptor.forClass(NotificationsChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(List.of(NotificationPush.courseFanOut(TEST_COURSE.getId(), firstNotificationId)),
+            captor.getValue().pushes());
+    }
+
+    @Test
+    void testNotifyEnrolledUsersCourseUpdatedLargeFanOutWithoutEnrollments() {
+        when(enrollmentRepository.countByCourse(eq(TEST_COURSE))).thenReturn(1000L);
+        when(enrollmentRepository.findUserIdsByCourseIdAfter(eq(TEST_COURSE.getId()), any(), eq(1000)))
+            .thenReturn(List.of());
+
+        notificationService.notifyEnrolledUsersCourseUpdated(TEST_COURSE, TEST_USER, "Course updated");
+
+        verifyNoInteractions(copyIngestService, notificationCounterService, eventPublisher);
+    }
+
+    private static Notification feedNotification(int minutesAgo) {
+        Notification notification = new Notification();
+        notification.setId(UUID.randomUUID());
+        notification.setRecipient(TEST_USER);
+        notification.setCreatedAt(LocalDateTime.now().minusMinutes(minutesAgo));
+        return notification;
     }
 
 }
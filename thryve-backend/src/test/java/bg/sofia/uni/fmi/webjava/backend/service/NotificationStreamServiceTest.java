@@ -0,0 +1,180 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.event.NotificationPush;
+import bg.sofia.uni.fmi.webjava.backend.event.NotificationsChangedEvent;
+import bg.sofia.uni.fmi.webjava.backend.mapper.NotificationDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.NotificationResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.Notification;
+import bg.sofia.uni.fmi.webjava.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createTestNotificationResponseDto;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationStreamServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationDtoMapper notificationDtoMapper;
+
+    @Mock
+    private NotificationCounterService notificationCounterService;
+
+    @InjectMocks
+    private NotificationStreamService notificationStreamService;
+
+    private static final String EMAIL = "stream@example.com";
+    private static final String OTHER_EMAIL = "other@example.com";
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID OTHER_USER_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationStreamService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(notificationStreamService, "bufferSize", 4);
+        ReflectionTestUtils.setField(notificationStreamService, "maxConnectionsPerUser", 2);
+        // drain synchronously so pushes can be verified without waiting on virtual threads
+        ReflectionTestUtils.setField(notificationStreamService, "executor", (Executor) Runnable::run);
+    }
+
+    @Test
+    void testSubscribeSendsCurrentUnreadCount() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(userResponseDto(USER_ID));
+
+        SseEmitter emitter = notificationStreamService.subscribe(EMAIL);
+
+        assertNotNull(emitter);
+        assertEquals(1, notificationStreamService.getConnectionCount());
+        verify(notificationCounterService).getUnreadCount(eq(USER_ID));
+    }
+
+    @Test
+    void testSubscribeClosesOldestConnectionOverLimit() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(userResponseDto(USER_ID));
+
+        notificationStreamService.subscribe(EMAIL);
+        notificationStreamService.subscribe(EMAIL);
+        notificationStreamService.subscribe(EMAIL);
+
+        assertEquals(2, notificationStreamService.getConnectionCount());
+    }
+
+    @Test
+    void testReplacingTheOnlyConnectionKeepsTheUserSubscribed() {
+        ReflectionTestUtils.setField(notificationStreamService, "maxConnectionsPerUser", 1);
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(userResponseDto(USER_ID));
+
+        notificationStreamService.subscribe(EMAIL);
+        notificationStreamService.subscribe(EMAIL);
+
+        assertEquals(1, notificationStreamService.getConnectionCount());
+    }
+
+    @Test
+    void testOnNotificationsChangedWithoutSubscribersDoesNothing() {
+        notificationStreamService.onNotificationsChanged(new NotificationsChangedEvent(
+            List.of(new NotificationPush(USER_ID, UUID.randomUUID()))));
+
+        verifyNoInteractions(notificationRepository, notificationCounterService);
+    }
+
+    @Test
+    void testDeliverLoadsNotificationsOnlyForConnectedRecipients() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(userResponseDto(USER_ID));
+        notificationStreamService.subscribe(EMAIL);
+        Notification notification = new Notification();
+        notification.setId(UUID.randomUUID());
+        NotificationResponseDto dto = createTestNotificationResponseDto();
+        when(notificationRepository.findAllById(eq(Set.of(notification.getId())))).thenReturn(List.of(notification));
+        when(notificationDtoMapper.mapToResponseDto(eq(notification))).thenReturn(dto);
+
+        notificationStreamService.onNotificationsChanged(new NotificationsChangedEvent(List.of(
+            new NotificationPush(USER_ID, notification.getId()),
+            new NotificationPush(OTHER_USER_ID, UUID.randomUUID()))));
+
+        verify(notificationRepository).findAllById(eq(Set.of(notification.getId())));
+        verify(notificationCounterService, times(2)).getUnreadCount(eq(USER_ID));
+    }
+
+    @Test
+    void testDeliverBroadcastReachesEveryConnectedUser() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(userResponseDto(USER_ID));
+        when(userService.getUserByEmail(eq(OTHER_EMAIL))).thenReturn(userResponseDto(OTHER_USER_ID));
+        notificationStreamService.subscribe(EMAIL);
+        notificationStreamService.subscribe(OTHER_EMAIL);
+
+        notificationStreamService.onNotificationsChanged(new NotificationsChangedEvent(
+            List.of(NotificationPush.unreadCountChanged(USER_ID), new NotificationPush(null, null))));
+
+        verify(notificationCounterService, times(3)).getUnreadCount(eq(USER_ID));
+        verify(notificationCounterService, times(2)).getUnreadCount(eq(OTHER_USER_ID));
+        verify(notificationCounterService).loadUnreadCounts(eq(Set.of(USER_ID, OTHER_USER_ID)));
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void testDeliverResolvesCourseFanOutsForConnectedUsers() {
+        when(userService.getUserByEmail(eq(EMAIL))).thenReturn(userResponseDto(USER_ID));
+        notificationStreamService.subscribe(EMAIL);
+        UUID courseId = UUID.randomUUID();
+        UUID firstNotificationId = UUID.randomUUID();
+        Notification notification = new Notification();
+        notification.setId(UUID.randomUUID());
+        when(notificationRepository.findCourseFanOut(eq(courseId), eq(firstNotificationId), eq(List.of(USER_ID))))
+            .thenReturn(List.of(fanOutNotification(USER_ID, notification.getId())));
+        when(notificationRepository.findAllById(eq(Set.of(notification.getId())))).thenReturn(List.of(notification));
+        when(notificationDtoMapper.mapToResponseDto(eq(notification))).thenReturn(createTestNotificationResponseDto());
+
+        notificationStreamService.onNotificationsChanged(new NotificationsChangedEvent(
+            List.of(NotificationPush.courseFanOut(courseId, firstNotificationId))));
+
+        verify(notificationCounterService).loadUnreadCounts(eq(Set.of(USER_ID)));
+        verify(notificationCounterService, times(2)).getUnreadCount(eq(USER_ID));
+    }
+
+    private static NotificationRepository.FanOutNotification fanOutNotification(UUID recipientId, UUID id) {
+        return new NotificationRepository.FanOutNotification() {
+            @Override
+            public UUID getRecipientId() {
+                return recipientId;
+            }
+
+            @Override
+            public UUID getId() {
+                return id;
+            }
+        };
+    }
+
+    private static UserResponseDto userResponseDto(UUID id) {
+        UserResponseDto user = new UserResponseDto();
+        user.setId(id);
+        return user;
+    }
+
+}
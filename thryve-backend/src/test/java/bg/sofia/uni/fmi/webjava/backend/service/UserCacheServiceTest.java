@@ -0,0 +1,126 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.event.PostgresChannelBridge;
+import bg.sofia.uni.fmi.webjava.backend.mapper.UserDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserSnapshot;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static bg.sofia.uni.fmi.webjava.backend.utils.TestUtils.createStandardTestUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDtoMapper userDtoMapper;
+
+    @Mock
+    private PostgresChannelBridge bridge;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserCacheService userCacheService;
+
+    private static final User STANDARD_TEST_USER = createStandardTestUser();
+    private static final UserSnapshot SNAPSHOT = new UserSnapshot(STANDARD_TEST_USER.getId(),
+        STANDARD_TEST_USER.getUsername(), STANDARD_TEST_USER.getFirstName(), STANDARD_TEST_USER.getLastName(),
+        STANDARD_TEST_USER.getEmail(), STANDARD_TEST_USER.getPassword(), STANDARD_TEST_USER.getRole());
+
+    @BeforeEach
+    void setUp() {
+        userCacheService = new UserCacheService(userRepository, userDtoMapper, bridge, meterRegistry);
+        ReflectionTestUtils.setField(userCacheService, "cacheSize", 100L);
+        ReflectionTestUtils.setField(userCacheService, "cacheTtlMs", 60_000L);
+    }
+
+    @Test
+    void testFindByEmailLoadsOnce() {
+        userCacheService.init();
+        when(userRepository.findByEmail(eq(STANDARD_TEST_USER.getEmail()))).thenReturn(Optional.of(STANDARD_TEST_USER));
+        when(userDtoMapper.mapUserToSnapshot(eq(STANDARD_TEST_USER))).thenReturn(SNAPSHOT);
+
+        assertEquals(Optional.of(SNAPSHOT), userCacheService.findByEmail(STANDARD_TEST_USER.getEmail()));
+        assertEquals(Optional.of(SNAPSHOT), userCacheService.findByEmail(STANDARD_TEST_USER.getEmail()));
+
+        verify(userRepository, times(1)).findByEmail(eq(STANDARD_TEST_USER.getEmail()));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+            .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+            .functionCounter().count());
+    }
+
+    @Test
+    void testFindByEmailDoesNotCacheMissingUsers() {
+        userCacheService.init();
+        when(userRepository.findByEmail(eq(STANDARD_TEST_USER.getEmail()))).thenReturn(Optional.empty());
+
+        assertTrue(userCacheService.findByEmail(STANDARD_TEST_USER.getEmail()).isEmpty());
+        assertTrue(userCacheService.findByEmail(STANDARD_TEST_USER.getEmail()).isEmpty());
+
+        verify(userRepository, times(2)).findByEmail(eq(STANDARD_TEST_USER.getEmail()));
+    }
+
+    @Test
+    void testEvictReloadsUser() {
+        userCacheService.init();
+        when(userRepository.findByEmail(eq(STANDARD_TEST_USER.getEmail()))).thenReturn(Optional.of(STANDARD_TEST_USER));
+        when(userDtoMapper.mapUserToSnapshot(eq(STANDARD_TEST_USER))).thenReturn(SNAPSHOT);
+        userCacheService.findByEmail(STANDARD_TEST_USER.getEmail());
+
+        userCacheService.evict(Set.of(STANDARD_TEST_USER.getEmail()));
+        userCacheService.findByEmail(STANDARD_TEST_USER.getEmail());
+
+        verify(userRepository, times(2)).findByEmail(eq(STANDARD_TEST_USER.getEmail()));
+        verify(bridge, never()).publish(any(), anyCollection());
+    }
+
+    @Test
+    void testEvictIsRelayedWhenBridgeIsEnabled() {
+        when(bridge.isEnabled()).thenReturn(true);
+        userCacheService.init();
+
+        userCacheService.evict(List.of("a;b@example.com"));
+
+        verify(bridge).subscribe(eq(UserCacheService.CHANNEL), any());
+        verify(bridge).publish(eq(UserCacheService.CHANNEL), eq(List.of(UserCacheService.encode("a;b@example.com"))));
+    }
+
+    @Test
+    void testOnMessageEvictsRelayedEmails() {
+        userCacheService.init();
+        when(userRepository.findByEmail(eq(STANDARD_TEST_USER.getEmail()))).thenReturn(Optional.of(STANDARD_TEST_USER));
+        when(userDtoMapper.mapUserToSnapshot(eq(STANDARD_TEST_USER))).thenReturn(SNAPSHOT);
+        userCacheService.findByEmail(STANDARD_TEST_USER.getEmail());
+
+        userCacheService.onMessage(UserCacheService.encode("other@example.com")
+            + PostgresChannelBridge.ENTRY_SEPARATOR + UserCacheService.encode(STANDARD_TEST_USER.getEmail()));
+        userCacheService.findByEmail(STANDARD_TEST_USER.getEmail());
+
+        verify(userRepository, times(2)).findByEmail(eq(STANDARD_TEST_USER.getEmail()));
+    }
+
+}
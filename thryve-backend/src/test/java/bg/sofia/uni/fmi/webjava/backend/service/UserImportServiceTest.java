@@ -0,0 +1,191 @@
+package bg.sofia.uni.fmi.webjava.backend.service;
+
+import bg.sofia.uni.fmi.webjava.backend.exception.PasswordHashingUnavailableException;
+import bg.sofia.uni.fmi.webjava.backend.mapper.UserDtoMapper;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserCreateDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserImportResultDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserImportStatus;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
+import bg.sofia.uni.fmi.webjava.backend.model.entity.UserRole;
+import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
+import bg.sofia.uni.fmi.webjava.backend.security.auth.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static bg.sofia.uni.fmi.webjava.backend.service.UserService.USER_WITH_EMAIL_ALREADY_EXISTS_ERROR_MESSAGE;
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    private static final String CSV_HEADER = "username,email,password,firstName,lastName\n";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserDtoMapper userDtoMapper;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private BulkWriter bulkWriter;
+
+    @Mock
+    private ResponseBodyEmitter emitter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ValidatorFactory validatorFactory;
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        userImportService = new UserImportService(userRepository, userDtoMapper, passwordEncoder, bulkWriter,
+            validatorFactory.getValidator(), objectMapper);
+        ReflectionTestUtils.setField(userImportService, "chunkSize", 2);
+        lenient().when(userDtoMapper.mapDtoToUser(any())).thenAnswer(invocation -> {
+            UserCreateDto userCreateDto = invocation.getArgument(0);
+            User user = new User();
+            user.setUsername(userCreateDto.getUsername());
+            user.setEmail(userCreateDto.getEmail());
+            return user;
+        });
+        lenient().when(passwordEncoder.encodeAll(anyList())).thenAnswer(invocation ->
+            invocation.<List<String>>getArgument(0).stream().map(password -> "hashed-" + password).toList());
+        lenient().doAnswer(invocation -> {
+            invocation.<List<User>>getArgument(0).forEach(user -> user.setId(UUID.randomUUID()));
+            return null;
+        }).when(bulkWriter).persistAll(anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void testImportCsvStreamsOneResultPerRecordInChunks() throws IOException {
+        when(userRepository.findExistingEmails(any()))
+            .thenReturn(Set.of("taken@mail.com"))
+            .thenReturn(Set.of());
+        when(userRepository.findExistingUsernames(any())).thenReturn(Set.of());
+        String csv = CSV_HEADER
+            + "alice,alice@mail.com,\"Pass,word1\",Alice,Smith\n"
+            + "bob,taken@mail.com,Password1,Bob,Jones\n"
+            + "\n"
+            + "carol,carol@mail.com,short,Carol,White\n"
+            + "dave,dave@mail.com,Password1,Dave\n"
+            + "erin,erin@mail.com,Password1,Erin,Black\n"
+            + "erin2,erin@mail.com,Password1,Erin,Black\n";
+
+        List<UserImportResultDto> results = importUsers(csv, false, 3);
+
+        assertEquals(List.of(2, 3, 5, 6, 7, 8), results.stream().map(UserImportResultDto::getLine).toList());
+        assertEquals(List.of(UserImportStatus.CREATED, UserImportStatus.DUPLICATE, UserImportStatus.INVALID,
+                UserImportStatus.INVALID, UserImportStatus.CREATED, UserImportStatus.DUPLICATE),
+            results.stream().map(UserImportResultDto::getStatus).toList());
+        assertNotNull(results.get(0).getId());
+        assertEquals(format(USER_WITH_EMAIL_ALREADY_EXISTS_ERROR_MESSAGE, "taken@mail.com"),
+            results.get(1).getMessage());
+        assertTrue(results.get(2).getMessage().startsWith("password: "));
+        assertEquals(UserImportService.DUPLICATE_IN_IMPORT_MESSAGE, results.get(5).getMessage());
+
+        ArgumentCaptor<List<User>> saved = ArgumentCaptor.captor();
+        verify(bulkWriter, times(2)).persistAll(saved.capture());
+        User alice = saved.getAllValues().get(0).get(0);
+        assertEquals("hashed-Pass,word1", alice.getPassword());
+        assertEquals(UserRole.STANDARD, alice.getRole());
+    }
+
+    @Test
+    void testImportNdjsonReportsUnparsableRecords() throws IOException {
+        when(userRepository.findExistingEmails(any())).thenReturn(Set.of());
+        when(userRepository.findExistingUsernames(any())).thenReturn(Set.of());
+        String ndjson = "{\"username\":\"alice\",\"email\":\"alice@mail.com\",\"password\":\"Password1\","
+            + "\"firstName\":\"Alice\",\"lastName\":\"Smith\"}\n"
+            + "{not json}\n";
+
+        List<UserImportResultDto> results = importUsers(ndjson, true, 1);
+
+        assertEquals(UserImportStatus.CREATED, results.get(0).getStatus());
+        assertEquals("alice@mail.com", results.get(0).getEmail());
+        assertEquals(UserImportStatus.INVALID, results.get(1).getStatus());
+        assertEquals(UserImportService.INVALID_JSON_RECORD_MESSAGE, results.get(1).getMessage());
+    }
+
+    @Test
+    void testImportMarksChunkFailedWhenHashingIsUnavailable() throws IOException {
+        when(userRepository.findExistingEmails(any())).thenReturn(Set.of());
+        when(userRepository.findExistingUsernames(any())).thenReturn(Set.of());
+        when(passwordEncoder.encodeAll(anyList())).thenThrow(new PasswordHashingUnavailableException("busy"));
+
+        List<UserImportResultDto> results = importUsers(
+            CSV_HEADER + "alice,alice@mail.com,Password1,Alice,Smith\n", false, 1);
+
+        assertEquals(UserImportStatus.FAILED, results.get(0).getStatus());
+        assertEquals(UserImportService.USERS_NOT_SAVED_MESSAGE, results.get(0).getMessage());
+        verifyNoInteractions(bulkWriter);
+    }
+
+    @Test
+    void testImportSkipsLookupsWhenNoRecordIsValid() throws IOException {
+        List<UserImportResultDto> results = importUsers(CSV_HEADER + "alice,alice@mail.com\n", false, 1);
+
+        assertEquals(UserImportStatus.INVALID, results.get(0).getStatus());
+        verifyNoInteractions(userRepository, passwordEncoder, bulkWriter);
+    }
+
+    @Test
+    void testSplitCsvLineHandlesQuotes() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""),
+            UserImportService.splitCsvLine("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+
+    private List<UserImportResultDto> importUsers(String body, boolean ndjson, int chunks) throws IOException {
+        userImportService.importUsers(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), ndjson, emitter);
+
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(emitter, times(chunks)).send(sent.capture(), eq(UserImportService.NDJSON_UTF8));
+        List<UserImportResultDto> results = new ArrayList<>();
+        for (Object lines : sent.getAllValues()) {
+            for (String line : ((String) lines).split("\n")) {
+                results.add(objectMapper.readValue(line, UserImportResultDto.class));
+            }
+        }
+        return results;
+    }
+
+}
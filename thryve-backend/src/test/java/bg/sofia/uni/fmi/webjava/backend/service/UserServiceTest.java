@@ -5,9 +5,11 @@ import bg.sofia.uni.fmi.webjava.backend.exception.EntityNotFoundException;
 import bg.sofia.uni.fmi.webjava.backend.mapper.UserDtoMapper;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserCreateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserResponseDto;
+import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserSnapshot;
 import bg.sofia.uni.fmi.webjava.backend.model.dto.user.UserUpdateDto;
 import bg.sofia.uni.fmi.webjava.backend.model.entity.User;
 import bg.sofia.uni.fmi.webjava.backend.repository.UserRepository;
+import bg.sofia.uni.fmi.webjava.backend.security.auth.AuthService;
 import bg.sofia.uni.fmi.webjava.backend.utils.TestUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +24,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static bg.sofia.uni.fmi.webjava.backend.service.UserService.USER_NOT_FOUND_ERROR_MESSAGE;
 import static bg.sofia.uni.fmi.webjava.backend.service.UserService.USER_WITH_EMAIL_ALREADY_EXISTS_ERROR_MESSAGE;
@@ -37,7 +40,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -54,6 +59,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private UserCacheService userCacheService;
+
     @InjectMocks
     private UserService userService;
 
@@ -172,10 +183,29 @@ public class UserServiceTest {
         verify(userDtoMapper, times(1)).updateUserFromDto(any(UserUpdateDto.class), eq(STANDARD_TEST_USER));
         verify(userRepository, times(1)).save(eq(STANDARD_TEST_USER));
         verify(userDtoMapper, times(1)).mapUserToResponseDto(eq(STANDARD_TEST_USER));
+        verify(authService, never()).revokeAllSessions(any());
+        verify(userCacheService).evict(eq(Set.of(STANDARD_TEST_USER.getEmail())));
 
         assertEquals(STANDARD_USER_RESPONSE_DTO, result);
     }
 
+    @Test
+    void testUpdateUserByIdWithNewEmailRevokesOldSessions() {
+        User user = createStandardTestUser();
+        String previousEmail = user.getEmail();
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.of(user));
+        when(userRepository.save(eq(user))).thenReturn(user);
+        doAnswer(invocation -> {
+            user.setEmail("changed@example.com");
+            return null;
+        }).when(userDtoMapper).updateUserFromDto(any(UserUpdateDto.class), eq(user));
+
+        userService.updateUserById(user.getId(), new UserUpdateDto());
+
+        verify(authService).revokeAllSessions(eq(previousEmail));
+        verify(userCacheService).evict(eq(Set.of(previousEmail, "changed@example.com")));
+    }
+
     @Test
     void testDeleteUserById() {
         when(userRepository.findById(eq(STANDARD_TEST_USER.getId()))).thenReturn(Optional.of(STANDARD_TEST_USER));
@@ -187,26 +217,40 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findById(eq(STANDARD_TEST_USER.getId()));
         verify(userDtoMapper, times(1)).mapUserToResponseDto(eq(STANDARD_TEST_USER));
         verify(userRepository, times(1)).deleteById(eq(STANDARD_TEST_USER.getId()));
+        verify(authService).revokeAllSessions(eq(STANDARD_USER_RESPONSE_DTO.getEmail()));
+        verify(userCacheService).evict(eq(Set.of(STANDARD_USER_RESPONSE_DTO.getEmail())));
 
         assertEquals(STANDARD_USER_RESPONSE_DTO, result);
     }
 
+    @Test
+    void testRevokeSessionsByUserId() {
+        when(userRepository.findById(eq(STANDARD_TEST_USER.getId()))).thenReturn(Optional.of(STANDARD_TEST_USER));
+
+        userService.revokeSessionsByUserId(STANDARD_TEST_USER.getId());
+
+        verify(authService).revokeAllSessions(eq(STANDARD_TEST_USER.getEmail()));
+    }
+
     @Test
     void testGetUserByEmail() {
-        when(userRepository.findByEmail(eq(STANDARD_TEST_USER.getEmail()))).thenReturn(Optional.of(STANDARD_TEST_USER));
-        when(userDtoMapper.mapUserToResponseDto(eq(STANDARD_TEST_USER))).thenReturn(STANDARD_USER_RESPONSE_DTO);
+        UserSnapshot snapshot = new UserSnapshot(STANDARD_TEST_USER.getId(), STANDARD_TEST_USER.getUsername(),
+            STANDARD_TEST_USER.getFirstName(), STANDARD_TEST_USER.getLastName(), STANDARD_TEST_USER.getEmail(),
+            STANDARD_TEST_USER.getPassword(), STANDARD_TEST_USER.getRole());
+        when(userCacheService.findByEmail(eq(STANDARD_TEST_USER.getEmail()))).thenReturn(Optional.of(snapshot));
+        when(userDtoMapper.mapSnapshotToResponseDto(eq(snapshot))).thenReturn(STANDARD_USER_RESPONSE_DTO);
 
         UserResponseDto result = userService.getUserByEmail(STANDARD_TEST_USER.getEmail());
 
-        verify(userRepository, times(1)).findByEmail(eq(STANDARD_TEST_USER.getEmail()));
-        verify(userDtoMapper, times(1)).mapUserToResponseDto(eq(STANDARD_TEST_USER));
+        verify(userCacheService, times(1)).findByEmail(eq(STANDARD_TEST_USER.getEmail()));
+        verify(userDtoMapper, times(1)).mapSnapshotToResponseDto(eq(snapshot));
 
         assertEquals(STANDARD_USER_RESPONSE_DTO, result);
     }
 
     @Test
     void testGetUserByEmailForNonExistingEmail() {
-        when(userRepository.findByEmail(eq(STANDARD_TEST_USER.getEmail()))).thenReturn(Optional.empty());
+        when(userCacheService.findByEmail(eq(STANDARD_TEST_USER.getEmail()))).thenReturn(Optional.empty());
         Exception exception = assertThrows(EntityNotFoundException.class,
             () -> userService.getUserByEmail(STANDARD_TEST_USER.getEmail()));
         assertEquals(format(UserService.USER_WITH_EMAIL_NOT_FOUND_ERROR_MESSAGE, STANDARD_TEST_USER.getEmail()),